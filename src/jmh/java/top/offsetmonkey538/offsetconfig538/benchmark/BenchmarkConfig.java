@@ -0,0 +1,64 @@
+package top.offsetmonkey538.offsetconfig538.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.api.config.Config;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Config used by the benchmarks. Its size is controlled by the amount of {@link #entries}.
+ */
+public class BenchmarkConfig implements Config {
+    /**
+     * Directory the config is saved in, set by the benchmark using it.
+     */
+    static Path directory;
+
+    public String name = "benchmark";
+    public int count = 538;
+    public boolean enabled = true;
+    public double ratio = 0.538;
+    public Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Creates a config with the provided amount of nested entries.
+     *
+     * @param size the amount of entries to add
+     * @return a config with the provided amount of nested entries.
+     */
+    static @NotNull BenchmarkConfig withEntries(final int size) {
+        final BenchmarkConfig config = new BenchmarkConfig();
+        for (int i = 0; i < size; i++) {
+            final Entry entry = new Entry();
+            entry.id = "entry_" + i;
+            entry.weight = i;
+            entry.enabled = i % 2 == 0;
+            entry.tags.add("tag_" + (i % 16));
+            entry.tags.add("tag_" + (i % 7));
+
+            config.entries.put(entry.id, entry);
+        }
+        return config;
+    }
+
+    @Override
+    public @NotNull Path getConfigDirPath() {
+        return directory;
+    }
+
+    @Override
+    public @NotNull String getId() {
+        return "benchmark";
+    }
+
+    public static class Entry {
+        public String id = "";
+        public int weight = 0;
+        public boolean enabled = true;
+        public List<String> tags = new ArrayList<>();
+    }
+}
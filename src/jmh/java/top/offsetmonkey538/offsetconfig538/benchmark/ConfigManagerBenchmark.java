@@ -0,0 +1,61 @@
+package top.offsetmonkey538.offsetconfig538.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigHolder;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigManager;
+import top.offsetmonkey538.offsetconfig538.api.config.ErrorHandler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks {@link ConfigManager#load(ConfigHolder)} and {@link ConfigManager#save(ConfigHolder)} across config sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConfigManagerBenchmark {
+    /**
+     * Amount of nested entries in the config, each having a few fields of its own.
+     */
+    @Param({"0", "10", "100", "1000", "5000"})
+    public int size;
+
+    private Path directory;
+    private ConfigHolder<BenchmarkConfig> holder;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("offsetconfig538-benchmark");
+        BenchmarkConfig.directory = directory;
+
+        holder = ConfigHolder.create(() -> BenchmarkConfig.withEntries(size), ErrorHandler.SYSTEM_ERR);
+        ConfigManager.init(holder);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+        }
+    }
+
+    @Benchmark
+    public BenchmarkConfig load() {
+        ConfigManager.load(holder);
+        return holder.get();
+    }
+
+    @Benchmark
+    public ConfigHolder<BenchmarkConfig> save() {
+        ConfigManager.save(holder);
+        return holder;
+    }
+}
@@ -0,0 +1,88 @@
+package top.offsetmonkey538.offsetconfig538.benchmark;
+
+import blue.endless.jankson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading a config that has to go through datafixer chains of increasing length.
+ * <p>
+ *     Loads from memory, so the results aren't dominated by creating backups and saving the fixed config.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DatafixerBenchmark {
+    /**
+     * Amount of datafixers to apply.
+     */
+    @Param({"0", "1", "10", "100"})
+    public int chainLength;
+
+    private ConfigHolder<DatafixConfig> holder;
+    private ByteBuffer source;
+
+    @Setup
+    public void setup() {
+        DatafixConfig.version = chainLength;
+
+        // Logging would be measured along with the datafixers
+        holder = ConfigHolder.create(DatafixConfig::new, (error, throwable) -> {});
+        // Without datafixers the key isn't renamed, so use the actual field name
+        source = ByteBuffer.wrap((chainLength == 0 ? "{ \"value\": 0 }" : "{ \"value0\": 0 }").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public DatafixConfig datafix() {
+        ConfigManager.loadFrom(holder, source.duplicate());
+        return holder.get();
+    }
+
+    public static class DatafixConfig implements Config {
+        static int version;
+
+        public int value = 0;
+
+        @Override
+        public @NotNull Datafixer[] getDatafixers() {
+            final Datafixer[] datafixers = new Datafixer[version];
+            for (int i = 0; i < version; i++) {
+                final String oldKey = "value" + i;
+                // The last fixer renames to the actual field name
+                final String newKey = i == version - 1 ? "value" : "value" + (i + 1);
+
+                datafixers[i] = (json, jankson) -> {
+                    final int value = json.getInt(oldKey, 0);
+                    json.remove(oldKey);
+                    json.put(newKey, new JsonPrimitive(value + 1));
+                };
+            }
+            return datafixers;
+        }
+
+        @Override
+        public int getConfigVersion() {
+            return version;
+        }
+
+        @Override
+        public @NotNull Path getConfigDirPath() {
+            return Path.of("benchmark-datafix");
+        }
+
+        @Override
+        public @NotNull String getId() {
+            return "datafix";
+        }
+    }
+}
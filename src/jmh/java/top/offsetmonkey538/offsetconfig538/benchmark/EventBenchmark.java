@@ -0,0 +1,39 @@
+package top.offsetmonkey538.offsetconfig538.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import top.offsetmonkey538.offsetconfig538.api.event.Event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Benchmarks dispatching an {@link Event} through {@link Event#getInvoker()} with different amounts of listeners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EventBenchmark {
+    @Param({"0", "1", "10"})
+    public int listeners;
+
+    private Event<IntConsumer> event;
+    private int sum;
+
+    @Setup
+    public void setup() {
+        event = Event.createEvent(IntConsumer.class, handlers -> value -> {
+            for (final IntConsumer handler : handlers) handler.accept(value);
+        });
+
+        for (int i = 0; i < listeners; i++) event.listen(value -> sum += value);
+    }
+
+    @Benchmark
+    public int invoke() {
+        event.getInvoker().accept(538);
+        return sum;
+    }
+}
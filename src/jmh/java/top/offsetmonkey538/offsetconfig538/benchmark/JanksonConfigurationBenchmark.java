@@ -0,0 +1,87 @@
+package top.offsetmonkey538.offsetconfig538.benchmark;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import top.offsetmonkey538.offsetconfig538.api.config.Config;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigHolder;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigManager;
+import top.offsetmonkey538.offsetconfig538.api.config.ErrorHandler;
+import top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the cost of building a configured {@link Jankson} and how much caching it saves on a small load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JanksonConfigurationBenchmark {
+    private ConfigHolder<SerializerConfig> holder;
+    private ByteBuffer source;
+
+    @Setup
+    public void setup() {
+        holder = ConfigHolder.create(SerializerConfig::new, ErrorHandler.SYSTEM_ERR);
+        source = ByteBuffer.wrap("{ \"id\": \"00000000-0000-0000-0000-000000000538\", \"timeout\": 538 }".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds a {@link Jankson} the same way the config manager does when its cache is empty.
+     */
+    @Benchmark
+    public Jankson build() {
+        final Jankson.Builder builder = Jankson.builder();
+
+        OffsetConfig538Events.JANKSON_CONFIGURATION_EVENT.getInvoker().configureBuilder(builder);
+        holder.get().configureJankson(builder);
+
+        return builder.build();
+    }
+
+    @Benchmark
+    public SerializerConfig loadCached() {
+        ConfigManager.loadFrom(holder, source.duplicate());
+        return holder.get();
+    }
+
+    @Benchmark
+    public SerializerConfig loadRebuilt() {
+        ConfigManager.invalidateJanksonCache(holder);
+        ConfigManager.loadFrom(holder, source.duplicate());
+        return holder.get();
+    }
+
+    public static class SerializerConfig implements Config {
+        public UUID id = UUID.randomUUID();
+        public Duration timeout = Duration.ofSeconds(5);
+
+        @Override
+        public void configureJankson(@NotNull Jankson.Builder builder) {
+            builder.registerSerializer(UUID.class, (uuid, marshaller) -> new JsonPrimitive(uuid.toString()));
+            builder.registerDeserializer(String.class, UUID.class, (string, marshaller) -> UUID.fromString(string));
+            builder.registerSerializer(Duration.class, (duration, marshaller) -> new JsonPrimitive(duration.toMillis()));
+            builder.registerDeserializer(Long.class, Duration.class, (millis, marshaller) -> Duration.ofMillis(millis));
+        }
+
+        @Override
+        public @NotNull Path getConfigDirPath() {
+            return Path.of("benchmark-jankson");
+        }
+
+        @Override
+        public @NotNull String getId() {
+            return "jankson";
+        }
+    }
+}
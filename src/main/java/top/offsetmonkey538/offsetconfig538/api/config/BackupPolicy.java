@@ -0,0 +1,24 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+/**
+ * Whether config files are backed up before {@link Datafixer}s are applied to them.
+ *
+ * @see Config#getBackupPolicy()
+ */
+public enum BackupPolicy {
+    /**
+     * Creates a new timestamped backup every time the config is datafixed.
+     */
+    KEEP,
+    /**
+     * Keeps only the most recent backup, overwriting the previous one.
+     */
+    KEEP_LATEST,
+    /**
+     * Doesn't create backups.
+     * <p>
+     *     Useful for configs that are managed by other tools or kept in version control.
+     * </p>
+     */
+    SKIP
+}
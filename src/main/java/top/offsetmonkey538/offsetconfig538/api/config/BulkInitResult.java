@@ -0,0 +1,27 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of {@link ConfigManager#initAll(java.util.Collection) initializing multiple configs} at once.
+ *
+ * @param totalTime how long initializing all configs took.
+ * @param timings how long initializing each config took, in the order they were provided in.
+ * @param written the configs whose files were written to disk. Configs whose files were already up to date aren't included.
+ * @param failures the unexpected exceptions thrown while initializing configs. These have already been logged using the holder's {@link ErrorHandler}.
+ */
+public record BulkInitResult(@NotNull Duration totalTime, @NotNull Map<ConfigHolder<?>, Duration> timings, @NotNull Set<ConfigHolder<?>> written, @NotNull Map<ConfigHolder<?>, Throwable> failures) {
+
+    /**
+     * Returns whether all configs were initialized without unexpected exceptions.
+     *
+     * @return whether all configs were initialized without unexpected exceptions.
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+}
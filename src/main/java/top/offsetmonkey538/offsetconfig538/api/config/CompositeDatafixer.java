@@ -0,0 +1,25 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * A {@link Datafixer} that upgrades a config across multiple versions in one pass.
+ * <p>
+ *     When a config file is at {@link #fromVersion()}, this datafixer is used instead of the individual datafixers up to {@link #toVersion()}.
+ *     When multiple composite datafixers start at the same version, the one reaching the furthest is used.
+ * </p>
+ *
+ * @param fromVersion the config version this datafixer upgrades from
+ * @param toVersion the config version this datafixer upgrades to
+ * @param datafixer the datafixer doing the upgrade
+ * @see Config#getCompositeDatafixers()
+ */
+public record CompositeDatafixer(@Range(from = 0, to = Integer.MAX_VALUE) int fromVersion, @Range(from = 1, to = Integer.MAX_VALUE) int toVersion, @NotNull Datafixer datafixer) {
+    /**
+     * @throws IllegalArgumentException when {@code fromVersion} is negative or {@code toVersion} isn't after it
+     */
+    public CompositeDatafixer {
+        if (fromVersion < 0 || toVersion <= fromVersion) throw new IllegalArgumentException("Invalid version range '%s' -> '%s'!".formatted(fromVersion, toVersion));
+    }
+}
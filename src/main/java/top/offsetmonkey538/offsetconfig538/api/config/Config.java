@@ -3,9 +3,11 @@ package top.offsetmonkey538.offsetconfig538.api.config;
 import blue.endless.jankson.Jankson;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * The class to implement in your config
@@ -20,8 +22,15 @@ public interface Config {
      * <br>
      * Override to add custom serializers and stuff
      * <p>
+     *     Serializers are used for the types of config fields. The config class itself is (de)serialized field by field,
+     *     unless a serializer or deserializer is registered for it, in which case Jankson is used for the whole config.
+     * </p>
+     * <p>
      *     The {@link top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events#JANKSON_CONFIGURATION_EVENT JANKSON_CONFIGURATION_EVENT} will be invoked before this method.
      * </p>
+     * <p>
+     *     The built {@link Jankson} is cached, use {@link ConfigManager#invalidateJanksonCache(ConfigHolder)} if this would now configure the builder differently.
+     * </p>
      *
      * @param builder the builder to configure.
      */
@@ -41,6 +50,9 @@ public interface Config {
      *     <br>
      *     ...
      * </p>
+     * <p>
+     *     Only called once per config class, the datafixers are reused for every config file, so they must not depend on the state of the config instance.
+     * </p>
      *
      * @return an array of {@link Datafixer}s for updating this config.
      * @see #getConfigVersion()
@@ -51,6 +63,23 @@ public interface Config {
         return new Datafixer[] {};
     }
 
+    /**
+     * Provides {@link CompositeDatafixer}s for upgrading this config across multiple versions in one pass.
+     * <p>
+     *     Used instead of the regular {@link #getDatafixers() datafixers} for the versions they cover,
+     *     for example when a single datafixer can do what several consecutive ones would.
+     * </p>
+     * <p>
+     *     Like {@link #getDatafixers()}, this is only called once per config class.
+     * </p>
+     *
+     * @return an array of {@link CompositeDatafixer}s for updating this config.
+     */
+    @Contract(pure = true)
+    default @NotNull CompositeDatafixer[] getCompositeDatafixers() {
+        return new CompositeDatafixer[] {};
+    }
+
     /**
      * Provides the current config version.
      * <br>
@@ -73,6 +102,101 @@ public interface Config {
 
     }
 
+    /**
+     * Provides the {@link SaveMode} used for writing this config to disk.
+     * <br>
+     * Defaults to {@link SaveMode#DIRECT}, use {@link SaveMode#ATOMIC} for configs that must never be left truncated
+     * or {@link SaveMode#ATOMIC_SYNC} for configs that must also survive power loss.
+     *
+     * @return the {@link SaveMode} used for writing this config to disk.
+     */
+    default @NotNull SaveMode getSaveMode() {
+        return SaveMode.DIRECT;
+    }
+
+    /**
+     * Provides the {@link BackupPolicy} used before applying {@link Datafixer}s to the config file.
+     * <br>
+     * Defaults to {@link BackupPolicy#KEEP}
+     *
+     * @return the {@link BackupPolicy} used before applying {@link Datafixer}s to the config file.
+     */
+    default @NotNull BackupPolicy getBackupPolicy() {
+        return BackupPolicy.KEEP;
+    }
+
+    /**
+     * Provides the {@link Path} to store a binary snapshot of this config at, or {@code null} to disable snapshots.
+     * <p>
+     *     Snapshots contain the already datafixed contents of the config file and are much faster to read than the file itself,
+     *     which helps with startup times of large configs.
+     *     <br>
+     *     A snapshot is only used while the contents of the config file and the {@link #getConfigVersion() config version}
+     *     match what they were when it was created, otherwise the config file is parsed normally and the snapshot recreated.
+     *     <br>
+     *     The config file is still read and hashed to check this, but that's much cheaper than parsing it.
+     * </p>
+     * <p>
+     *     Disabled by default. For example {@code getConfigDirPath().resolve(".cache").resolve(getId() + ".snapshot")}
+     * </p>
+     *
+     * @return the {@link Path} to store a binary snapshot of this config at, or {@code null} to disable snapshots.
+     */
+    default @Nullable Path getSnapshotPath() {
+        return null;
+    }
+
+    /**
+     * Provides whether the values of entries of this config should be shared with other loaded configs of the same class that have identical entries.
+     * <p>
+     *     When enabled, strings are interned, including ones inside modifiable collections and maps. For boxed primitives the json of the entry is hashed when loading,
+     *     and if another config of the same class loaded an identical value for that entry, that value is used instead of the newly created one.
+     *     <br>
+     *     Greatly reduces memory usage when many holders load identical or nearly identical files with lots of text.
+     * </p>
+     * <p>
+     *     Each holder still gets its own config object, and only immutable values are shared, so modifying a config only ever affects its own holder.
+     * </p>
+     * <p>
+     *     Disabled by default.
+     * </p>
+     *
+     * @return whether the values of entries of this config should be shared with other loaded configs.
+     */
+    default boolean isDeduplicated() {
+        return false;
+    }
+
+    /**
+     * Provides the {@link Path} to store the change journal of this config at, or {@code null} to disable journaling.
+     * <p>
+     *     Changes recorded with {@link ConfigManager#journal(ConfigHolder, String)} are appended to the journal as small records instead of rewriting the whole config file.
+     *     The journal is folded into the config file by a full save, which happens automatically {@link #getJournalCompactionDelay() a while} after the first recorded change.
+     *     <br>
+     *     When loading, records still in the journal are applied on top of the config file.
+     * </p>
+     * <p>
+     *     Disabled by default. For example {@code getConfigDirPath().resolve(getId() + ".journal")}
+     * </p>
+     *
+     * @return the {@link Path} to store the change journal of this config at, or {@code null} to disable journaling.
+     */
+    default @Nullable Path getJournalPath() {
+        return null;
+    }
+
+    /**
+     * Provides how long to wait after a change is {@link ConfigManager#journal(ConfigHolder, String) recorded} before folding the journal into the config file.
+     * <br>
+     * Defaults to 10 seconds
+     *
+     * @return how long to wait before folding the journal into the config file.
+     * @see #getJournalPath()
+     */
+    default @NotNull Duration getJournalCompactionDelay() {
+        return Duration.ofSeconds(10);
+    }
+
     /**
      * Provides the {@link Path} to the config file.
      *
@@ -103,8 +227,25 @@ public interface Config {
      * Provides the extension for this config file.
      * <br>
      * MUST start with a dot ({@code .})
+     * <br>
+     * Defaults to the extension of the {@link #getFormat() format}
      */
     default @NotNull String getFileExtension() {
-        return ".json";
+        return getFormat().getFileExtension();
+    }
+
+    /**
+     * Provides the {@link ConfigFormat} this config is stored in.
+     * <br>
+     * Defaults to {@link ConfigFormat#JSON5}
+     * <p>
+     *     Changing the format of an existing config doesn't convert its file, so also change the {@link #getFileExtension() file extension}
+     *     or move the old file in {@link #beforeLoadStart()}.
+     * </p>
+     *
+     * @return the {@link ConfigFormat} this config is stored in.
+     */
+    default @NotNull ConfigFormat getFormat() {
+        return ConfigFormat.JSON5;
     }
 }
@@ -0,0 +1,70 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.api.SyntaxError;
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.impl.config.ConfigFormats;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The format config files are stored in.
+ * <p>
+ *     Formats only convert between bytes and Jankson's json tree, so {@link Datafixer}s and the config version work the same for every format.
+ * </p>
+ * <p>
+ *     Implement this to add your own format.
+ * </p>
+ *
+ * @see Config#getFormat()
+ */
+public interface ConfigFormat {
+    /**
+     * Human-readable json5 with comments. The default.
+     */
+    ConfigFormat JSON5 = ConfigFormats.JSON5;
+    /**
+     * Json without comments or whitespace.
+     * <p>
+     *     Smaller and faster to write than {@link #JSON5}, for configs that are only edited by programs.
+     * </p>
+     */
+    ConfigFormat COMPACT_JSON = ConfigFormats.COMPACT_JSON;
+    /**
+     * A binary encoding of the json tree, including comments.
+     * <p>
+     *     Much faster to read than the text formats, but can't be edited by hand.
+     * </p>
+     */
+    ConfigFormat BINARY = ConfigFormats.BINARY;
+
+    /**
+     * Reads json from the provided stream.
+     *
+     * @param in the stream to read from. Doesn't have to be closed.
+     * @param jankson the {@link Jankson} instance configured for the config
+     * @return the read json.
+     * @throws IOException when reading fails or the contents are corrupted.
+     * @throws SyntaxError when the contents are formatted incorrectly.
+     */
+    @NotNull JsonObject read(@NotNull InputStream in, @NotNull Jankson jankson) throws IOException, SyntaxError;
+
+    /**
+     * Writes the provided json to the provided stream.
+     *
+     * @param json the json to write
+     * @param out the stream to write to. Doesn't have to be closed, but must be flushed.
+     * @throws IOException when writing fails.
+     */
+    void write(@NotNull JsonObject json, @NotNull OutputStream out) throws IOException;
+
+    /**
+     * Provides the file extension used for configs in this format, unless the config {@link Config#getFileExtension() overrides it}.
+     *
+     * @return the file extension used for configs in this format. For example {@code ".json"}
+     */
+    @NotNull String getFileExtension();
+}
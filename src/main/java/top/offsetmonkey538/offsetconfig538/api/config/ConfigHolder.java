@@ -4,9 +4,13 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.api.event.ConfigChangeListener;
+import top.offsetmonkey538.offsetconfig538.api.event.Event;
 import top.offsetmonkey538.offsetconfig538.impl.config.ConfigHolderImpl;
 
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Holds a {@link Config} and associated info
@@ -35,12 +39,80 @@ public interface ConfigHolder<T extends Config> {
      *     <br>
      *     <strong>DO NOT keep an instance of the config returned here! Only store the holder itself and always call this method!</strong>
      * </p>
+     * <p>
+     *     Safe to call from any thread, the returned config is always fully constructed.
+     * </p>
      *
      * @return The config currently held by this holder.
      */
     @Contract(pure = true)
     @NotNull T get();
 
+    /**
+     * Returns the generation of the held config.
+     * <p>
+     *     Starts at {@code 0} and is increased every time the held config is replaced, for example by {@link #set(Config) set} or by loading it.
+     *     <br>
+     *     Modifying the fields of the held config doesn't change the generation, call {@link #set(Config) set} with the modified config if you need it to.
+     * </p>
+     *
+     * @return the generation of the held config.
+     */
+    @Contract(pure = true)
+    long getGeneration();
+
+    /**
+     * Returns the held config along with its {@link #getGeneration() generation}.
+     * <p>
+     *     Unlike calling {@link #get()} and {@link #getGeneration()} separately, the generation always belongs to the returned config.
+     * </p>
+     *
+     * @return the held config along with its generation.
+     */
+    @Contract(pure = true)
+    @NotNull ConfigState<T> getState();
+
+    /**
+     * Creates a {@link Supplier} for a value derived from the held config, for example a compiled regex or a lookup table.
+     * <p>
+     *     The value is computed when first requested and then cached until the {@link #getGeneration() generation} of the held config changes.
+     *     <br>
+     *     Safe to call from any thread. Concurrent requests after a change may compute the value more than once.
+     * </p>
+     *
+     * @param function creates the value from the config. Must not modify the config.
+     * @return a {@link Supplier} for a value derived from the held config.
+     * @param <R> the type of the derived value
+     */
+    <R> @NotNull Supplier<R> derive(@NotNull Function<? super T, ? extends R> function);
+
+    /**
+     * Returns the event invoked when the value at the provided key path changes.
+     * <p>
+     *     Whenever the held config is replaced, for example by {@link #set(Config) set} or by loading it,
+     *     the values at all key paths with listeners are compared between the old and new config and the events of the changed ones are invoked.
+     *     <br>
+     *     Values are compared with {@link Object#equals(Object) equals}, or field by field for classes that don't override it.
+     *     Classes with final fields and no {@code equals} can't be compared field by field, so key paths through them aren't supported.
+     *     {@link LazySection}s that haven't been loaded are compared by their json and only loaded if it changed.
+     *     <br>
+     *     Modifying the fields of the held config directly doesn't invoke any events.
+     * </p>
+     * <p>
+     *     Key paths are the names of fields as written in the config file, separated by dots. For example {@code "spawning.rates"}.
+     *     Entries of {@link java.util.Map Map}s can be accessed by their key.
+     *     <br>
+     *     Listeners are invoked on the thread replacing the config.
+     * </p>
+     *
+     * @param keyPath the path of the key to listen to
+     * @param valueType the type of the value at the key path. Use {@link Object} if it doesn't matter
+     * @return the event invoked when the value at the provided key path changes.
+     * @param <V> the type of the value at the key path
+     * @throws IllegalArgumentException when the key path doesn't exist in the config, goes through a class that can't be compared or the value at it isn't of the provided type.
+     */
+    <V> @NotNull Event<ConfigChangeListener<V>> onChange(@NotNull String keyPath, @NotNull Class<V> valueType);
+
     /**
      * Returns the class of the held config.
      *
@@ -73,4 +145,46 @@ public interface ConfigHolder<T extends Config> {
      * @param newConfig the new config to hold. If null, the config will be reset to default values.
      */
     void set(@Nullable T newConfig);
+
+    /**
+     * Atomically sets the held config to a new value, but only if the currently held config is the expected one.
+     * <p>
+     *     Configs are compared by identity, not {@link Object#equals(Object) equals}.
+     *     <br>
+     *     When the new value is {@code null}, the held config will be reset to default values.
+     * </p>
+     *
+     * @param expectedConfig the config expected to currently be held.
+     * @param newConfig the new config to hold. If null, the config will be reset to default values.
+     * @return whether the held config was replaced.
+     */
+    boolean compareAndSet(@NotNull T expectedConfig, @Nullable T newConfig);
+
+    /**
+     * Atomically replaces the held config with the result of the provided function.
+     * <p>
+     *     The function receives the currently held config and should return a <strong>modified copy</strong> of it, without modifying the provided config.
+     *     If another thread replaces the held config in the meantime, the function is called again with the new config,
+     *     so concurrent updates never overwrite each other.
+     *     <br>
+     *     When the function returns {@code null}, the held config will be reset to default values.
+     * </p>
+     *
+     * @param updater a side effect free function creating the new config from the current one.
+     * @return the new config.
+     */
+    @NotNull T update(@NotNull UnaryOperator<T> updater);
+
+    /**
+     * Marks a top level key of the config as changed.
+     * <p>
+     *     When any keys are marked, {@link ConfigManager#savePartial(ConfigHolder) partial saves} only write the marked keys,
+     *     instead of comparing every field against the file.
+     *     <br>
+     *     Marks are cleared once the key has been written, so they stay when saving fails.
+     * </p>
+     *
+     * @param key the name of the changed field, as written in the config file
+     */
+    void markDirty(@NotNull String key);
 }
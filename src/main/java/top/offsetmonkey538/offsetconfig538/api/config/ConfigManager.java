@@ -1,8 +1,14 @@
 package top.offsetmonkey538.offsetconfig538.api.config;
 
 import org.jetbrains.annotations.*;
+import top.offsetmonkey538.offsetconfig538.impl.config.ByteBufferInputStream;
 import top.offsetmonkey538.offsetconfig538.impl.config.ConfigManagerImpl;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Has methods for loading and saving configs
  */
@@ -35,6 +41,8 @@ public interface ConfigManager {
      * Initializes the provided {@link ConfigHolder}.
      * <p>
      *     Initializing means first trying to {@link #load(ConfigHolder, ErrorHandler) load} the config if possible, and then {@link #save(ConfigHolder, ErrorHandler) saving} it.
+     *     <br>
+     *     The config is only saved when the file doesn't exist yet or its contents differ from the held config.
      * </p>
      *
      * @param configHolder the {@link ConfigHolder} to initialize.
@@ -43,9 +51,58 @@ public interface ConfigManager {
      * @param <T> your {@link Config} class
      */
     static <T extends Config> @NotNull ConfigHolder<T> init(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
+        return initWithResult(configHolder, errorHandler).configHolder();
+    }
+
+    /**
+     * Initializes the provided {@link ConfigHolder} and reports whether the config file was written.
+     * <p>
+     *     Uses the {@link ErrorHandler} from the config holder.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to initialize.
+     * @return an {@link InitResult} containing the provided {@link ConfigHolder} and whether the config file was written.
+     * @param <T> your {@link Config} class
+     * @see #init(ConfigHolder)
+     */
+    static <T extends Config> @NotNull InitResult<T> initWithResult(@NotNull ConfigHolder<T> configHolder) {
+        return initWithResult(configHolder, configHolder.getErrorHandler());
+    }
+
+    /**
+     * Initializes the provided {@link ConfigHolder} and reports whether the config file was written.
+     *
+     * @param configHolder the {@link ConfigHolder} to initialize.
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @return an {@link InitResult} containing the provided {@link ConfigHolder} and whether the config file was written.
+     * @param <T> your {@link Config} class
+     * @see #init(ConfigHolder, ErrorHandler)
+     */
+    static <T extends Config> @NotNull InitResult<T> initWithResult(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
         return INSTANCE.initImpl(configHolder, errorHandler);
     }
 
+    /**
+     * Initializes all provided {@link ConfigHolder}s in parallel.
+     * <p>
+     *     Each holder is {@link #init(ConfigHolder) initialized} on a background thread using its own {@link ErrorHandler}.
+     *     Exceptions thrown while initializing one holder don't affect the others, they're logged using that holder's {@link ErrorHandler}
+     *     and included in the returned {@link BulkInitResult}.
+     * </p>
+     * <p>
+     *     Blocks until all holders have been initialized.
+     *     <br>
+     *     As multiple configs are handled at once, {@link top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events#JANKSON_CONFIGURATION_EVENT JANKSON_CONFIGURATION_EVENT}
+     *     listeners may be invoked from multiple threads at the same time.
+     * </p>
+     *
+     * @param configHolders the {@link ConfigHolder}s to initialize.
+     * @return a {@link BulkInitResult} containing the time taken, the configs that were written and any failures.
+     */
+    static @NotNull BulkInitResult initAll(@NotNull Collection<? extends ConfigHolder<?>> configHolders) {
+        return INSTANCE.initAllImpl(configHolders);
+    }
+
     /**
      * Loads a config from disk into the provided {@link ConfigHolder} and applies any required {@link Datafixer}s.
      * <p>
@@ -70,6 +127,129 @@ public interface ConfigManager {
         INSTANCE.loadImpl(configHolder, errorHandler);
     }
 
+    /**
+     * Loads a config from the provided {@link InputStream} into the provided {@link ConfigHolder} and applies any required {@link Datafixer}s.
+     * <p>
+     *     Uses the {@link ErrorHandler} from the config holder.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to load
+     * @param in the stream to read the config from
+     * @param <T> your {@link Config} class
+     * @see #loadFrom(ConfigHolder, InputStream, ErrorHandler)
+     */
+    static <T extends Config> void loadFrom(@NotNull ConfigHolder<T> configHolder, @NotNull InputStream in) {
+        loadFrom(configHolder, in, configHolder.getErrorHandler());
+    }
+
+    /**
+     * Loads a config from the provided {@link InputStream} into the provided {@link ConfigHolder} and applies any required {@link Datafixer}s.
+     * <p>
+     *     Can be used for loading configs from jars, network caches and such. The stream is read on the calling thread and isn't closed.
+     *     <br>
+     *     As the config doesn't come from its file, {@link Config#beforeLoadStart()} isn't called, no backup is created
+     *     and the config isn't saved afterwards, even if datafixers were applied.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to load
+     * @param in the stream to read the config from
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @param <T> your {@link Config} class
+     */
+    static <T extends Config> void loadFrom(@NotNull ConfigHolder<T> configHolder, @NotNull InputStream in, @NotNull ErrorHandler errorHandler) {
+        INSTANCE.loadFromImpl(configHolder, in, errorHandler);
+    }
+
+    /**
+     * Loads a config from the provided {@link ByteBuffer} into the provided {@link ConfigHolder} and applies any required {@link Datafixer}s.
+     * <p>
+     *     Uses the {@link ErrorHandler} from the config holder.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to load
+     * @param buffer the buffer containing the UTF-8 encoded config
+     * @param <T> your {@link Config} class
+     * @see #loadFrom(ConfigHolder, ByteBuffer, ErrorHandler)
+     */
+    static <T extends Config> void loadFrom(@NotNull ConfigHolder<T> configHolder, @NotNull ByteBuffer buffer) {
+        loadFrom(configHolder, buffer, configHolder.getErrorHandler());
+    }
+
+    /**
+     * Loads a config from the provided {@link ByteBuffer} into the provided {@link ConfigHolder} and applies any required {@link Datafixer}s.
+     * <p>
+     *     The buffer is read from its position up to its limit without copying it. Its position is advanced past the read bytes.
+     *     <br>
+     *     Otherwise behaves the same as {@link #loadFrom(ConfigHolder, InputStream, ErrorHandler)}.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to load
+     * @param buffer the buffer containing the UTF-8 encoded config
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @param <T> your {@link Config} class
+     */
+    static <T extends Config> void loadFrom(@NotNull ConfigHolder<T> configHolder, @NotNull ByteBuffer buffer, @NotNull ErrorHandler errorHandler) {
+        loadFrom(configHolder, new ByteBufferInputStream(buffer), errorHandler);
+    }
+
+    /**
+     * Loads a config from disk into the provided {@link ConfigHolder}, but only if the file has changed since it was last saved or reloaded.
+     * <p>
+     *     Uses the {@link ErrorHandler} from the config holder.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to reload
+     * @return whether the config was reloaded.
+     * @param <T> your {@link Config} class
+     * @see ConfigWatcher
+     */
+    static <T extends Config> boolean reload(@NotNull ConfigHolder<T> configHolder) {
+        return reload(configHolder, configHolder.getErrorHandler());
+    }
+
+    /**
+     * Loads a config from disk into the provided {@link ConfigHolder}, but only if the file has changed since it was last saved or reloaded.
+     *
+     * @param configHolder the {@link ConfigHolder} to reload
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @return whether the config was reloaded.
+     * @param <T> your {@link Config} class
+     * @see ConfigWatcher
+     */
+    static <T extends Config> boolean reload(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
+        return INSTANCE.reloadImpl(configHolder, errorHandler);
+    }
+
+    /**
+     * Reports what {@link Datafixer}s would change in the config file of the provided {@link ConfigHolder}, without modifying the file or the held config.
+     * <p>
+     *     Uses the {@link ErrorHandler} from the config holder.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to check
+     * @return what datafixers would change, or {@code null} if the config file doesn't exist or couldn't be read.
+     * @param <T> your {@link Config} class
+     * @see #dryRunDatafixers(ConfigHolder, ErrorHandler)
+     */
+    static <T extends Config> @Nullable DatafixReport dryRunDatafixers(@NotNull ConfigHolder<T> configHolder) {
+        return dryRunDatafixers(configHolder, configHolder.getErrorHandler());
+    }
+
+    /**
+     * Reports what {@link Datafixer}s would change in the config file of the provided {@link ConfigHolder}, without modifying the file or the held config.
+     * <p>
+     *     The datafixers are run on a copy of the file contents, so they must not have side effects outside the provided json.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to check
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @return what datafixers would change, or {@code null} if the config file doesn't exist or couldn't be read.
+     * @param <T> your {@link Config} class
+     */
+    static <T extends Config> @Nullable DatafixReport dryRunDatafixers(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
+        return INSTANCE.dryRunDatafixersImpl(configHolder, errorHandler);
+    }
+
     /**
      * Saves the currently held config to disk from the provided {@link ConfigHolder} also writes the config version for datafixing.
      * <p>
@@ -94,12 +274,197 @@ public interface ConfigManager {
         INSTANCE.saveImpl(configHolder, errorHandler);
     }
 
+    /**
+     * Saves only the changed entries of the currently held config from the provided {@link ConfigHolder}.
+     * <p>
+     *     Uses the {@link ErrorHandler} from the config holder.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to save
+     * @param <T> your {@link Config} class
+     * @see #savePartial(ConfigHolder, ErrorHandler)
+     */
+    static <T extends Config> void savePartial(@NotNull ConfigHolder<T> configHolder) {
+        savePartial(configHolder, configHolder.getErrorHandler());
+    }
+
+    /**
+     * Saves only the changed entries of the currently held config from the provided {@link ConfigHolder}.
+     * <p>
+     *     Instead of serializing the whole config, the json last loaded from or saved to disk is reused and only the changed entries are replaced.
+     *     Comments added by users, the order of entries and unknown entries are kept.
+     *     <br>
+     *     Entries are considered changed when they were {@link ConfigHolder#markDirty(String) marked dirty}, or if no entries were marked,
+     *     when their serialized value differs from the one in the file.
+     *     <br>
+     *     The file isn't written at all when nothing changed.
+     * </p>
+     * <p>
+     *     Falls back to a full {@link #save(ConfigHolder, ErrorHandler) save} when the config hasn't been loaded or saved yet, or the file was changed by something else since.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to save
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @param <T> your {@link Config} class
+     */
+    static <T extends Config> void savePartial(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
+        INSTANCE.savePartialImpl(configHolder, errorHandler);
+    }
+
+    /**
+     * Records a change of a single entry of the currently held config from the provided {@link ConfigHolder} in its journal.
+     * <p>
+     *     Uses the {@link ErrorHandler} from the config holder.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} whose config was changed
+     * @param key the name of the changed entry
+     * @param <T> your {@link Config} class
+     * @see #journal(ConfigHolder, String, ErrorHandler)
+     */
+    static <T extends Config> void journal(@NotNull ConfigHolder<T> configHolder, @NotNull String key) {
+        journal(configHolder, key, configHolder.getErrorHandler());
+    }
+
+    /**
+     * Records a change of a single entry of the currently held config from the provided {@link ConfigHolder} in its journal.
+     * <p>
+     *     Meant for entries changed many times in a short time. Only the new value of the entry is appended to the {@link Config#getJournalPath() journal},
+     *     which is much cheaper than rewriting the whole config file.
+     *     <br>
+     *     A full {@link #save(ConfigHolder, ErrorHandler) save} is scheduled {@link Config#getJournalCompactionDelay() after a while}, which writes
+     *     the config file and deletes the journal. Any other full save does the same.
+     * </p>
+     * <p>
+     *     Falls back to {@link #saveAsync(ConfigHolder, ErrorHandler) saveAsync} when the config doesn't have a journal.
+     *     <br>
+     *     Only configs whose entries can be serialized one by one can be journaled, so configs with {@link Config#configureJankson(blue.endless.jankson.Jankson.Builder) custom serializers}
+     *     or final fields log an error and are saved with {@link #saveAsync(ConfigHolder, ErrorHandler) saveAsync} instead.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} whose config was changed
+     * @param key the name of the changed entry
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @param <T> your {@link Config} class
+     */
+    static <T extends Config> void journal(@NotNull ConfigHolder<T> configHolder, @NotNull String key, @NotNull ErrorHandler errorHandler) {
+        INSTANCE.journalImpl(configHolder, key, errorHandler);
+    }
+
+    /**
+     * Saves the currently held config to disk from the provided {@link ConfigHolder} on a background thread.
+     * <p>
+     *     Uses the {@link ErrorHandler} from the config holder.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to save
+     * @return a {@link CompletableFuture} completed once the config has been written.
+     * @param <T> your {@link Config} class
+     * @see #saveAsync(ConfigHolder, ErrorHandler)
+     */
+    static <T extends Config> @NotNull CompletableFuture<Void> saveAsync(@NotNull ConfigHolder<T> configHolder) {
+        return saveAsync(configHolder, configHolder.getErrorHandler());
+    }
+
+    /**
+     * Saves the currently held config to disk from the provided {@link ConfigHolder} on a background thread.
+     * <p>
+     *     The save starts after a short delay. All saves of the same holder requested before it starts are merged into it
+     *     and get the same {@link CompletableFuture}, so only the latest state is written once.
+     *     <br>
+     *     When merged, the {@link ErrorHandler} of the first request is used.
+     * </p>
+     * <p>
+     *     The config is serialized on the background thread, so avoid modifying it in place while a save is pending.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to save
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @return a {@link CompletableFuture} completed once the config has been written, or completed exceptionally if writing it failed.
+     * @param <T> your {@link Config} class
+     */
+    static <T extends Config> @NotNull CompletableFuture<Void> saveAsync(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
+        return INSTANCE.saveAsyncImpl(configHolder, errorHandler);
+    }
+
+    /**
+     * Forces the {@link blue.endless.jankson.Jankson Jankson} instance of the provided {@link ConfigHolder} to be rebuilt the next time it's loaded or saved.
+     * <p>
+     *     Jankson instances are cached per holder and only rebuilt automatically when a new listener is registered to the
+     *     {@link top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events#JANKSON_CONFIGURATION_EVENT JANKSON_CONFIGURATION_EVENT}.
+     *     Call this if your {@link Config#configureJankson(blue.endless.jankson.Jankson.Builder)} would now configure the builder differently.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to rebuild the jankson instance of
+     * @param <T> your {@link Config} class
+     * @see #invalidateJanksonCaches()
+     */
+    static <T extends Config> void invalidateJanksonCache(@NotNull ConfigHolder<T> configHolder) {
+        INSTANCE.invalidateJanksonCacheImpl(configHolder);
+    }
+
+    /**
+     * Forces the {@link blue.endless.jankson.Jankson Jankson} instances of all {@link ConfigHolder}s to be rebuilt the next time they're loaded or saved.
+     *
+     * @see #invalidateJanksonCache(ConfigHolder)
+     */
+    static void invalidateJanksonCaches() {
+        INSTANCE.invalidateJanksonCachesImpl();
+    }
+
+
+    /**
+     * Sets where timings and counters recorded while loading and saving configs are reported to.
+     * <p>
+     *     Set to {@link ConfigMetrics#NONE} (the default) to stop measuring completely.
+     *     Use {@link ConfigMetrics#andThen(ConfigMetrics)} for reporting to multiple sinks.
+     * </p>
+     *
+     * @param metrics the {@link ConfigMetrics} to report to
+     * @see #getMetrics()
+     */
+    static void setMetrics(@NotNull ConfigMetrics metrics) {
+        INSTANCE.setMetricsImpl(metrics);
+    }
+
+    /**
+     * Returns the {@link ConfigMetrics} timings and counters are currently reported to.
+     *
+     * @return the {@link ConfigMetrics} timings and counters are currently reported to.
+     * @see #setMetrics(ConfigMetrics)
+     */
+    static @NotNull ConfigMetrics getMetrics() {
+        return INSTANCE.getMetricsImpl();
+    }
+
 
     // Impl
     @ApiStatus.Internal
-    <T extends Config> @NotNull ConfigHolder<T> initImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler);
+    <T extends Config> @NotNull InitResult<T> initImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler);
+    @ApiStatus.Internal
+    @NotNull BulkInitResult initAllImpl(@NotNull Collection<? extends ConfigHolder<?>> configHolders);
     @ApiStatus.Internal
     <T extends Config> void loadImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler);
     @ApiStatus.Internal
+    <T extends Config> void loadFromImpl(@NotNull ConfigHolder<T> configHolder, @NotNull InputStream in, @NotNull ErrorHandler errorHandler);
+    @ApiStatus.Internal
+    <T extends Config> boolean reloadImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler);
+    @ApiStatus.Internal
+    <T extends Config> @Nullable DatafixReport dryRunDatafixersImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler);
+    @ApiStatus.Internal
     <T extends Config> void saveImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler);
+    @ApiStatus.Internal
+    <T extends Config> void savePartialImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler);
+    @ApiStatus.Internal
+    <T extends Config> @NotNull CompletableFuture<Void> saveAsyncImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler);
+    @ApiStatus.Internal
+    <T extends Config> void journalImpl(@NotNull ConfigHolder<T> configHolder, @NotNull String key, @NotNull ErrorHandler errorHandler);
+    @ApiStatus.Internal
+    void setMetricsImpl(@NotNull ConfigMetrics metrics);
+    @ApiStatus.Internal
+    @NotNull ConfigMetrics getMetricsImpl();
+    @ApiStatus.Internal
+    <T extends Config> void invalidateJanksonCacheImpl(@NotNull ConfigHolder<T> configHolder);
+    @ApiStatus.Internal
+    void invalidateJanksonCachesImpl();
 }
@@ -0,0 +1,151 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * A sink for timings and counters recorded while loading and saving configs.
+ * <p>
+ *     Set using {@link ConfigManager#setMetrics(ConfigMetrics)}. All methods are no-ops by default, so only override the ones you care about.
+ *     <br>
+ *     Methods may be called from multiple threads at the same time and should return quickly.
+ * </p>
+ * <p>
+ *     While {@link #NONE} is set, nothing is measured at all.
+ * </p>
+ */
+public interface ConfigMetrics {
+    /**
+     * {@link ConfigMetrics} that records nothing. The default.
+     */
+    ConfigMetrics NONE = new ConfigMetrics() {
+
+    };
+
+    /**
+     * Called after a phase of loading or saving a config has completed successfully.
+     *
+     * @param configHolder the {@link ConfigHolder} being loaded or saved
+     * @param phase the completed phase
+     * @param durationNanos how long the phase took, in nanoseconds
+     */
+    default void onPhase(final @NotNull ConfigHolder<?> configHolder, final @NotNull Phase phase, final long durationNanos) {
+
+    }
+
+    /**
+     * Called after a config file has been read.
+     *
+     * @param configHolder the {@link ConfigHolder} being loaded
+     * @param bytes the amount of bytes read
+     */
+    default void onBytesRead(final @NotNull ConfigHolder<?> configHolder, final long bytes) {
+
+    }
+
+    /**
+     * Called after a config file has been written.
+     *
+     * @param configHolder the {@link ConfigHolder} being saved
+     * @param bytes the amount of bytes written
+     */
+    default void onBytesWritten(final @NotNull ConfigHolder<?> configHolder, final long bytes) {
+
+    }
+
+    /**
+     * Called after a single {@link Datafixer} has been applied.
+     *
+     * @param configHolder the {@link ConfigHolder} being loaded
+     * @param fromVersion the config version before the datafixer
+     * @param toVersion the config version after the datafixer
+     */
+    default void onDatafixerApplied(final @NotNull ConfigHolder<?> configHolder, final int fromVersion, final int toVersion) {
+
+    }
+
+    /**
+     * Called when a phase of loading or saving a config fails.
+     * <p>
+     *     The failure is also logged using the {@link ErrorHandler} as usual.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} being loaded or saved
+     * @param phase the failed phase
+     * @param throwable the cause of the failure, may be null
+     */
+    default void onFailure(final @NotNull ConfigHolder<?> configHolder, final @NotNull Phase phase, final @Nullable Throwable throwable) {
+
+    }
+
+    /**
+     * Returns {@link ConfigMetrics} passing everything to this and then the provided {@link ConfigMetrics}.
+     *
+     * @param after the {@link ConfigMetrics} to pass everything to after this
+     * @return {@link ConfigMetrics} passing everything to both.
+     */
+    default @NotNull ConfigMetrics andThen(final @NotNull ConfigMetrics after) {
+        Objects.requireNonNull(after);
+        final ConfigMetrics before = this;
+
+        return new ConfigMetrics() {
+            @Override
+            public void onPhase(@NotNull ConfigHolder<?> configHolder, @NotNull Phase phase, long durationNanos) {
+                before.onPhase(configHolder, phase, durationNanos);
+                after.onPhase(configHolder, phase, durationNanos);
+            }
+
+            @Override
+            public void onBytesRead(@NotNull ConfigHolder<?> configHolder, long bytes) {
+                before.onBytesRead(configHolder, bytes);
+                after.onBytesRead(configHolder, bytes);
+            }
+
+            @Override
+            public void onBytesWritten(@NotNull ConfigHolder<?> configHolder, long bytes) {
+                before.onBytesWritten(configHolder, bytes);
+                after.onBytesWritten(configHolder, bytes);
+            }
+
+            @Override
+            public void onDatafixerApplied(@NotNull ConfigHolder<?> configHolder, int fromVersion, int toVersion) {
+                before.onDatafixerApplied(configHolder, fromVersion, toVersion);
+                after.onDatafixerApplied(configHolder, fromVersion, toVersion);
+            }
+
+            @Override
+            public void onFailure(@NotNull ConfigHolder<?> configHolder, @NotNull Phase phase, @Nullable Throwable throwable) {
+                before.onFailure(configHolder, phase, throwable);
+                after.onFailure(configHolder, phase, throwable);
+            }
+        };
+    }
+
+    /**
+     * The phases of loading and saving a config.
+     */
+    enum Phase {
+        /**
+         * Reading the config file and parsing it into json.
+         */
+        PARSE,
+        /**
+         * Applying {@link Datafixer}s. Only recorded when at least one datafixer is applied.
+         */
+        DATAFIX,
+        /**
+         * Creating the config object from json.
+         */
+        DESERIALIZE,
+        /**
+         * Converting the config object to json.
+         */
+        SERIALIZE,
+        /**
+         * Converting json to text and writing it to the config file.
+         */
+        WRITE
+    }
+}
@@ -0,0 +1,67 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.impl.config.ConfigMigratorImpl;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Applies {@link Datafixer}s to whole directories of config files at once, for example before deploying an update to many servers.
+ * <p>
+ *     Config files are matched to config types by the end of their path relative to the directory, which has to be the {@link Config#getId() id} followed by the {@link Config#getFileExtension() file extension}.
+ *     For example {@code mymod/main.json} only matches files called {@code main.json} in a directory called {@code mymod}, so configs of other mods with the same file name aren't touched.
+ *     Files matching several types are left alone and reported as failures.
+ *     <br>
+ *     Other files are ignored.
+ * </p>
+ * <p>
+ *     Files are only datafixed, not deserialized, so unknown entries and comments are kept.
+ *     Backups are created according to the {@link Config#getBackupPolicy() backup policy} of the config type.
+ *     <br>
+ *     Files are migrated in parallel and one at a time per thread, so memory use doesn't grow with the amount of files.
+ * </p>
+ */
+@ApiStatus.NonExtendable
+public interface ConfigMigrator {
+    /**
+     * Instance of the implementation
+     */
+    @ApiStatus.Internal
+    ConfigMigrator INSTANCE = new ConfigMigratorImpl();
+
+    /**
+     * Migrates all config files in the provided directory and its subdirectories, using one thread per processor.
+     *
+     * @param rootDirectory the directory to search for config files
+     * @param configTypes the default constructors of the config types to migrate, for example {@code MyConfig::new}
+     * @param dryRun when {@code true}, only reports what would change without writing anything.
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @return what was migrated.
+     * @see #migrate(Path, Collection, boolean, int, ErrorHandler)
+     */
+    static @NotNull MigrationReport migrate(@NotNull Path rootDirectory, @NotNull Collection<? extends Supplier<? extends Config>> configTypes, boolean dryRun, @NotNull ErrorHandler errorHandler) {
+        return migrate(rootDirectory, configTypes, dryRun, Runtime.getRuntime().availableProcessors(), errorHandler);
+    }
+
+    /**
+     * Migrates all config files in the provided directory and its subdirectories.
+     *
+     * @param rootDirectory the directory to search for config files
+     * @param configTypes the default constructors of the config types to migrate, for example {@code MyConfig::new}
+     * @param dryRun when {@code true}, only reports what would change without writing anything.
+     * @param parallelism the amount of files to migrate at the same time
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @return what was migrated.
+     */
+    static @NotNull MigrationReport migrate(@NotNull Path rootDirectory, @NotNull Collection<? extends Supplier<? extends Config>> configTypes, boolean dryRun, int parallelism, @NotNull ErrorHandler errorHandler) {
+        return INSTANCE.migrateImpl(rootDirectory, configTypes, dryRun, parallelism, errorHandler);
+    }
+
+
+    // Impl
+    @ApiStatus.Internal
+    @NotNull MigrationReport migrateImpl(@NotNull Path rootDirectory, @NotNull Collection<? extends Supplier<? extends Config>> configTypes, boolean dryRun, int parallelism, @NotNull ErrorHandler errorHandler);
+}
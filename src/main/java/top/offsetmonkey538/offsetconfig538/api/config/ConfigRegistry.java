@@ -0,0 +1,156 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.impl.config.ConfigRegistryImpl;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Keeps track of {@link ConfigHolder}s by their {@link Config#getId() id}, for operating on all of them at once.
+ * <p>
+ *     Holders aren't registered automatically, register them after creating them, for example:
+ *     <br>
+ *     {@code public static final ConfigHolder<MyConfig> CONFIG = ConfigRegistry.register(ConfigHolder.create(MyConfig::new, LOGGER::error));}
+ * </p>
+ * <p>
+ *     A holder is considered dirty when its config has been {@link ConfigHolder#set(Config) replaced} since it was last loaded or saved,
+ *     when keys have been {@link ConfigHolder#markDirty(String) marked as changed} or when an {@link ConfigManager#saveAsync(ConfigHolder) asynchronous save} is pending.
+ *     <br>
+ *     Modifying the fields of a config directly doesn't make it dirty.
+ * </p>
+ */
+@ApiStatus.NonExtendable
+public interface ConfigRegistry {
+    /**
+     * Instance of the implementation
+     */
+    @ApiStatus.Internal
+    ConfigRegistry INSTANCE = new ConfigRegistryImpl();
+
+    /**
+     * Registers the provided {@link ConfigHolder} under the id of its config.
+     *
+     * @param configHolder the {@link ConfigHolder} to register
+     * @return the provided {@link ConfigHolder}.
+     * @param <T> your {@link Config} class
+     * @throws IllegalArgumentException when a different holder is already registered with the same id.
+     */
+    @Contract("_ -> param1")
+    static <T extends Config> @NotNull ConfigHolder<T> register(@NotNull ConfigHolder<T> configHolder) {
+        INSTANCE.registerImpl(configHolder);
+        return configHolder;
+    }
+
+    /**
+     * Unregisters the provided {@link ConfigHolder}.
+     *
+     * @param configHolder the {@link ConfigHolder} to unregister
+     * @return whether the holder was registered.
+     */
+    static boolean unregister(@NotNull ConfigHolder<?> configHolder) {
+        return INSTANCE.unregisterImpl(configHolder);
+    }
+
+    /**
+     * Returns the {@link ConfigHolder} registered with the provided id.
+     *
+     * @param id the {@link Config#getId() id} of the config
+     * @return the {@link ConfigHolder} registered with the provided id, or {@code null} if there isn't one.
+     */
+    static @Nullable ConfigHolder<?> get(@NotNull String id) {
+        return INSTANCE.getImpl(id);
+    }
+
+    /**
+     * Returns the {@link ConfigHolder} registered with the provided id, if it holds the provided config class.
+     *
+     * @param id the {@link Config#getId() id} of the config
+     * @param configClass the class of the config
+     * @return the {@link ConfigHolder} registered with the provided id, or {@code null} if there isn't one or it holds a different config class.
+     * @param <T> your {@link Config} class
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Config> @Nullable ConfigHolder<T> get(@NotNull String id, @NotNull Class<T> configClass) {
+        final ConfigHolder<?> configHolder = INSTANCE.getImpl(id);
+        if (configHolder == null || configHolder.getConfigClass() != configClass) return null;
+        return (ConfigHolder<T>) configHolder;
+    }
+
+    /**
+     * Returns all registered {@link ConfigHolder}s.
+     *
+     * @return an unmodifiable copy of all registered {@link ConfigHolder}s.
+     */
+    static @NotNull Collection<ConfigHolder<?>> getAll() {
+        return INSTANCE.getAllImpl();
+    }
+
+    /**
+     * Saves all dirty registered configs in parallel and waits for them to be written.
+     *
+     * @return the holders that were saved.
+     */
+    static @NotNull Set<ConfigHolder<?>> saveAllDirty() {
+        return INSTANCE.saveAllDirtyImpl(null);
+    }
+
+    /**
+     * Saves all dirty registered configs in parallel and waits at most the provided time for them to be written.
+     * <p>
+     *     Configs that weren't saved in time are logged using their holder's {@link ErrorHandler}, they may still be written later.
+     * </p>
+     *
+     * @param timeout how long to wait for the configs to be written
+     * @return the holders that were saved in time.
+     */
+    static @NotNull Set<ConfigHolder<?>> saveAllDirty(@NotNull Duration timeout) {
+        return INSTANCE.saveAllDirtyImpl(timeout);
+    }
+
+    /**
+     * {@link ConfigManager#reload(ConfigHolder) Reloads} all registered configs whose files have changed, in parallel.
+     * <p>
+     *     Invokes the {@link top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events#CONFIG_RELOADED_EVENT CONFIG_RELOADED_EVENT} for each reloaded config.
+     * </p>
+     *
+     * @return the holders that were reloaded.
+     */
+    static @NotNull Set<ConfigHolder<?>> reloadAll() {
+        return INSTANCE.reloadAllImpl();
+    }
+
+    /**
+     * Saves all dirty registered configs when the JVM shuts down.
+     * <p>
+     *     Only installs a single shutdown hook, calling this again only changes the timeout.
+     * </p>
+     *
+     * @param timeout how long the shutdown may be delayed for saving
+     * @see #saveAllDirty(Duration)
+     */
+    static void flushOnShutdown(@NotNull Duration timeout) {
+        INSTANCE.flushOnShutdownImpl(timeout);
+    }
+
+
+    // Impl
+    @ApiStatus.Internal
+    void registerImpl(@NotNull ConfigHolder<?> configHolder);
+    @ApiStatus.Internal
+    boolean unregisterImpl(@NotNull ConfigHolder<?> configHolder);
+    @ApiStatus.Internal
+    @Nullable ConfigHolder<?> getImpl(@NotNull String id);
+    @ApiStatus.Internal
+    @NotNull Collection<ConfigHolder<?>> getAllImpl();
+    @ApiStatus.Internal
+    @NotNull Set<ConfigHolder<?>> saveAllDirtyImpl(@Nullable Duration timeout);
+    @ApiStatus.Internal
+    @NotNull Set<ConfigHolder<?>> reloadAllImpl();
+    @ApiStatus.Internal
+    void flushOnShutdownImpl(@NotNull Duration timeout);
+}
@@ -0,0 +1,30 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores a section of a {@link Config} in its own file.
+ * <p>
+ *     Put this on a field whose type also implements {@link Config}. The section is then stored in the file of its own config
+ *     (usually in the same {@link Config#getConfigDirPath() directory} as the main config),
+ *     with its own {@link Config#getConfigVersion() version}, {@link Config#getDatafixers() datafixers} and {@link Config#getFormat() format}.
+ * </p>
+ * <p>
+ *     Shards are loaded and saved in parallel along with the main config, {@link ConfigHolder#get()} still returns a single config containing all of them.
+ *     <br>
+ *     When saving, only the files whose contents have changed are written, so a change to one section only rewrites that section's file.
+ *     <br>
+ *     {@link ConfigManager#reload(ConfigHolder) Reloading} also checks the shard files, but the {@link ConfigWatcher} only watches the main config file.
+ * </p>
+ * <p>
+ *     The field must not be {@code null} in the default config.
+ * </p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ConfigShard {
+
+}
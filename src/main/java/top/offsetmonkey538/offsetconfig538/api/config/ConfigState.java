@@ -0,0 +1,23 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A config held by a {@link ConfigHolder} along with its generation.
+ * <p>
+ *     The generation is increased every time the held config is replaced, so two states with the same generation always contain the same config.
+ *     Use it to cache values derived from the config, and only recompute them when the generation changes.
+ * </p>
+ * <p>
+ *     The config isn't copied, it's the same instance the holder returns from {@link ConfigHolder#get()}. Nothing stops it from being modified,
+ *     but modifying it doesn't change the generation, so treat it as read only and {@link ConfigHolder#set(Config) set} a modified copy instead.
+ * </p>
+ *
+ * @param config the config held when the state was read
+ * @param generation the generation of the config
+ * @param <T> your {@link Config} class
+ * @see ConfigHolder#getState()
+ */
+public record ConfigState<T extends Config>(@NotNull T config, long generation) {
+
+}
@@ -0,0 +1,71 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.impl.config.ConfigWatcherImpl;
+
+/**
+ * Watches config files for changes and reloads them automatically.
+ * <p>
+ *     Opt-in, only {@link #watch(ConfigHolder) watched} holders are reloaded.
+ *     All holders share a single background thread, which is started when the first holder is watched.
+ * </p>
+ * <p>
+ *     Changes are debounced, so an editor saving a file multiple times in quick succession only causes a single reload.
+ *     Changes made by {@link ConfigManager#save(ConfigHolder) saving} the config are ignored.
+ *     <br>
+ *     After a holder has been reloaded, the {@link top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events#CONFIG_RELOADED_EVENT CONFIG_RELOADED_EVENT} is invoked on the watcher thread.
+ * </p>
+ */
+@ApiStatus.NonExtendable
+public interface ConfigWatcher {
+    /**
+     * Instance of the implementation
+     */
+    @ApiStatus.Internal
+    ConfigWatcher INSTANCE = new ConfigWatcherImpl();
+
+    /**
+     * Starts watching the file of the provided {@link ConfigHolder} for changes.
+     * <p>
+     *     Errors are logged using the {@link ErrorHandler} from the config holder.
+     * </p>
+     *
+     * @param configHolder the {@link ConfigHolder} to reload when its file changes
+     * @return the provided {@link ConfigHolder}, in case you want to inline watching and creating the holder.
+     * @param <T> your {@link Config} class
+     */
+    static <T extends Config> @NotNull ConfigHolder<T> watch(@NotNull ConfigHolder<T> configHolder) {
+        INSTANCE.watchImpl(configHolder);
+        return configHolder;
+    }
+
+    /**
+     * Stops watching the file of the provided {@link ConfigHolder} for changes.
+     *
+     * @param configHolder the {@link ConfigHolder} to stop watching
+     * @param <T> your {@link Config} class
+     */
+    static <T extends Config> void unwatch(@NotNull ConfigHolder<T> configHolder) {
+        INSTANCE.unwatchImpl(configHolder);
+    }
+
+    /**
+     * Stops watching all config files and stops the watcher thread.
+     * <p>
+     *     Calling {@link #watch(ConfigHolder)} afterwards starts a new watcher thread.
+     * </p>
+     */
+    static void shutdown() {
+        INSTANCE.shutdownImpl();
+    }
+
+
+    // Impl
+    @ApiStatus.Internal
+    <T extends Config> void watchImpl(@NotNull ConfigHolder<T> configHolder);
+    @ApiStatus.Internal
+    <T extends Config> void unwatchImpl(@NotNull ConfigHolder<T> configHolder);
+    @ApiStatus.Internal
+    void shutdownImpl();
+}
@@ -0,0 +1,29 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes what {@link Datafixer}s would change in a config file.
+ *
+ * @param fromVersion the version of the config file
+ * @param toVersion the version the config file would be upgraded to. Lower than the current config version if a datafixer is missing.
+ * @param steps the version upgrades that would be done, in order. For example {@code "0 -> 1"}, or {@code "1 -> 5"} for {@link CompositeDatafixer}s.
+ * @param addedKeys top level keys that would be added
+ * @param removedKeys top level keys that would be removed
+ * @param changedKeys top level keys whose values would change
+ * @see ConfigManager#dryRunDatafixers(ConfigHolder)
+ */
+public record DatafixReport(int fromVersion, int toVersion, @NotNull List<String> steps, @NotNull Set<String> addedKeys, @NotNull Set<String> removedKeys, @NotNull Set<String> changedKeys) {
+
+    /**
+     * Returns whether the config file is already up to date.
+     *
+     * @return whether the config file is already up to date.
+     */
+    public boolean isUpToDate() {
+        return steps.isEmpty();
+    }
+}
@@ -0,0 +1,14 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The result of {@link ConfigManager#initWithResult(ConfigHolder) initializing} a config.
+ *
+ * @param configHolder the initialized {@link ConfigHolder}.
+ * @param written whether the config file was written to disk. {@code false} when the file was already up to date.
+ * @param <T> your {@link Config} class
+ */
+public record InitResult<T extends Config>(@NotNull ConfigHolder<T> configHolder, boolean written) {
+
+}
@@ -0,0 +1,112 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.impl.config.LayeredConfigImpl;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A config stacked from a base {@link ConfigHolder} and layer files overriding some of its entries.
+ * <br>
+ * For example a global config with per-world and per-instance overrides.
+ * <p>
+ *     The base config is loaded and saved as usual and contains every entry. Layer files only contain the entries they override and are never written.
+ *     <br>
+ *     Each entry is taken from the last layer containing it, or from the base config when no layer contains it.
+ *     Objects are merged, so a layer can override a single value inside an entry.
+ * </p>
+ * <p>
+ *     The effective config is created once and cached. When layers are reloaded, only the entries that changed in them are recomputed, the rest are reused.
+ *     <br>
+ *     The effective config shares values with the base config, treat it as read only.
+ * </p>
+ * <p>
+ *     Layer files aren't datafixed, their entries must match the current {@link Config#getConfigVersion() config version}.
+ *     Entries that can't be converted to the type of the field are logged and the value of the base config is used instead.
+ * </p>
+ *
+ * @param <T> your {@link Config} class
+ */
+@ApiStatus.NonExtendable
+public interface LayeredConfig<T extends Config> {
+
+    /**
+     * Creates a new layered config and reads its layer files.
+     * <p>
+     *     The base config should already be {@link ConfigManager#init(ConfigHolder) initialized}.
+     *     Missing layer files are treated as empty.
+     * </p>
+     *
+     * @param base the {@link ConfigHolder} of the base config
+     * @param layerPaths the layer files, the last one has the highest priority
+     * @return a new layered config
+     * @param <T> your {@link Config} class
+     * @throws IllegalArgumentException when the config class has final fields.
+     */
+    @Contract("_, _ -> new")
+    static <T extends Config> @NotNull LayeredConfig<T> create(@NotNull ConfigHolder<T> base, @NotNull List<Path> layerPaths) {
+        return new LayeredConfigImpl<>(base, layerPaths);
+    }
+
+    /**
+     * Returns the effective config, with the entries of all layers applied on top of the base config.
+     * <p>
+     *     Just reads the cached config, so it's cheap to call as often as needed.
+     *     The config is {@link #refresh() recomputed} first if the base config was replaced since it was last computed.
+     *     <br>
+     *     <strong>DO NOT keep an instance of the config returned here or modify it!</strong>
+     * </p>
+     *
+     * @return the effective config.
+     */
+    @Contract(pure = true)
+    @NotNull T get();
+
+    /**
+     * Returns the {@link ConfigHolder} of the base config.
+     *
+     * @return the {@link ConfigHolder} of the base config.
+     */
+    @Contract(pure = true)
+    @NotNull ConfigHolder<T> getBase();
+
+    /**
+     * Returns the layer files, the last one has the highest priority.
+     *
+     * @return the layer files.
+     */
+    @Contract(pure = true)
+    @NotNull List<Path> getLayerPaths();
+
+    /**
+     * {@link ConfigManager#reload(ConfigHolder) Reloads} the base config and all layer files that changed.
+     * <p>
+     *     Only entries that changed in the layers are recomputed, unless the base config was replaced.
+     * </p>
+     *
+     * @return whether the effective config was replaced.
+     */
+    boolean reload();
+
+    /**
+     * Reloads the layer file at the provided index if it changed.
+     *
+     * @param index the index of the layer in {@link #getLayerPaths()}
+     * @return whether the effective config was replaced.
+     * @throws IndexOutOfBoundsException when there's no layer at the provided index.
+     */
+    boolean reloadLayer(int index);
+
+    /**
+     * Recomputes the effective config if the base config was {@link ConfigHolder#set(Config) replaced} since it was last computed.
+     * <p>
+     *     Doesn't read any files. {@link #get()} already does this when needed.
+     * </p>
+     *
+     * @return whether the effective config was replaced.
+     */
+    boolean refresh();
+}
@@ -0,0 +1,69 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.impl.config.LazySectionImpl;
+
+/**
+ * A section of a {@link Config} that's only deserialized when it's first accessed.
+ * <p>
+ *     Useful for large tables that are rarely used, as they're kept as json until {@link #get()} is called.
+ *     Sections that were never accessed are written back as they were loaded.
+ * </p>
+ * <p>
+ *     Use it as the type of a config field, for example:
+ *     <br>
+ *     {@code public LazySection<Map<String, ItemOverride>> overrides = LazySection.of(new HashMap<>());}
+ *     <br>
+ *     The type argument is used for deserializing the section, so it must be a concrete type.
+ * </p>
+ * <p>
+ *     Lazy sections can only be used in config classes with non-final fields.
+ * </p>
+ *
+ * @param <V> the type of the section
+ */
+@ApiStatus.NonExtendable
+public interface LazySection<V> {
+
+    /**
+     * Creates a new, already loaded section holding the provided value.
+     * <p>
+     *     The value is also used when the section can't be deserialized from the config file.
+     * </p>
+     *
+     * @param defaultValue the default value of the section
+     * @return a new section holding the provided value
+     * @param <V> the type of the section
+     */
+    static <V> @NotNull LazySection<V> of(final @Nullable V defaultValue) {
+        return new LazySectionImpl<>(defaultValue);
+    }
+
+    /**
+     * Returns the value of this section, deserializing it first if needed.
+     * <p>
+     *     Safe to call from any thread, the section is only deserialized once.
+     * </p>
+     *
+     * @return the value of this section.
+     */
+    @Nullable V get();
+
+    /**
+     * Sets the value of this section. Discards the json if the section wasn't loaded yet.
+     *
+     * @param value the new value of this section
+     */
+    void set(@Nullable V value);
+
+    /**
+     * Returns whether this section has been deserialized.
+     *
+     * @return whether this section has been deserialized.
+     */
+    @Contract(pure = true)
+    boolean isLoaded();
+}
@@ -0,0 +1,37 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of {@link ConfigMigrator#migrate(Path, java.util.Collection, boolean, ErrorHandler) migrating} a directory of config files.
+ *
+ * @param totalTime how long the migration took.
+ * @param upgraded the files that were upgraded, or would have been upgraded in a dry run, along with what changed in them.
+ * @param skipped the files that were already up to date.
+ * @param failures the files that couldn't be migrated and why. These have already been logged using the provided {@link ErrorHandler}.
+ */
+public record MigrationReport(@NotNull Duration totalTime, @NotNull Map<Path, DatafixReport> upgraded, @NotNull Set<Path> skipped, @NotNull Map<Path, Throwable> failures) {
+
+    /**
+     * Returns whether all files were migrated successfully.
+     *
+     * @return whether all files were migrated successfully.
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Returns the amount of config files found.
+     *
+     * @return the amount of config files found.
+     */
+    public int fileCount() {
+        return upgraded.size() + skipped.size() + failures.size();
+    }
+}
@@ -0,0 +1,33 @@
+package top.offsetmonkey538.offsetconfig538.api.config;
+
+/**
+ * How config files are written to disk.
+ *
+ * @see Config#getSaveMode()
+ */
+public enum SaveMode {
+    /**
+     * Writes directly to the config file.
+     * <p>
+     *     Fastest, but a crash or running out of disk space mid-write leaves behind a truncated config file.
+     * </p>
+     */
+    DIRECT,
+    /**
+     * Writes to a temporary file next to the config file and then atomically moves it over the config file.
+     * <p>
+     *     The config file always contains either the old or the new contents, but a crash of the whole system (not just the game) may still lose the new contents.
+     * </p>
+     * <p>
+     *     Symlinked config files are written through the link and the permissions of the existing file are kept where the file system supports them.
+     * </p>
+     */
+    ATOMIC,
+    /**
+     * Same as {@link #ATOMIC}, but also forces the temporary file to disk before moving it.
+     * <p>
+     *     Survives system crashes and power loss, but each save waits for the disk.
+     * </p>
+     */
+    ATOMIC_SYNC
+}
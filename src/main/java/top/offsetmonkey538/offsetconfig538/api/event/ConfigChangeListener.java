@@ -0,0 +1,20 @@
+package top.offsetmonkey538.offsetconfig538.api.event;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Handler for the change events of a single key of a config.
+ *
+ * @param <V> the type of the value at the key
+ * @see top.offsetmonkey538.offsetconfig538.api.config.ConfigHolder#onChange(String, Class)
+ */
+@FunctionalInterface
+public interface ConfigChangeListener<V> {
+    /**
+     * Called after the value at the key has changed.
+     *
+     * @param oldValue the value in the previously held config, {@code null} if it was null or didn't exist.
+     * @param newValue the value in the newly held config, {@code null} if it's null or doesn't exist.
+     */
+    void onChange(@Nullable V oldValue, @Nullable V newValue);
+}
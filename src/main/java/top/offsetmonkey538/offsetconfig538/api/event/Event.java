@@ -18,7 +18,7 @@ public interface Event<T> {
      * Creates a new event
      *
      * @param type the handler type
-     * @param invokerFactory a function that turns the list of handlers into a handler. Should loop over all handlers and run them one by one. May have custom logic
+     * @param invokerFactory a function that turns the list of handlers into a handler. Should loop over all handlers and run them one by one. May have custom logic. Called once with no handlers when the event is created and again every time a listener is registered
      * @return a new event
      * @param <T> the handler type
      */
@@ -28,13 +28,19 @@ public interface Event<T> {
 
     /**
      * Register a listener to this event.
+     * <p>
+     *     Safe to call from multiple threads at the same time.
+     * </p>
      *
      * @param listener the listener to register
      */
     void listen(T listener);
 
     /**
-     * Creates an invoker. This is used to actually invoke the event.
+     * Returns the invoker. This is used to actually invoke the event.
+     * <p>
+     *     The invoker is cached and only recreated when a new listener is registered, so this doesn't allocate.
+     * </p>
      *
      * @return an invoker to invoke this event.
      */
@@ -4,6 +4,7 @@ import blue.endless.jankson.Jankson;
 import org.jetbrains.annotations.NotNull;
 import top.offsetmonkey538.offsetconfig538.api.config.ConfigHolder;
 import top.offsetmonkey538.offsetconfig538.api.config.ConfigManager;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigWatcher;
 
 /**
  * Contains events for OffsetConfig538
@@ -18,14 +19,30 @@ public final class OffsetConfig538Events {
      * <p>
      *     This can be used to add global serializers and whatever
      * </p>
+     * <p>
+     *     Built {@link Jankson} instances are cached per {@link ConfigHolder}, registering a new listener causes them to be rebuilt.
+     * </p>
      *
      * @see ConfigManager#load(ConfigHolder)
      * @see ConfigManager#save(ConfigHolder)
+     * @see ConfigManager#invalidateJanksonCaches()
      */
     public static final Event<JanksonConfigurationEvent> JANKSON_CONFIGURATION_EVENT = Event.createEvent(JanksonConfigurationEvent.class, handlers -> builder -> {
         for (final JanksonConfigurationEvent handler : handlers) handler.configureBuilder(builder);
     });
 
+    /**
+     * Event invoked after a config has been reloaded because its file changed.
+     * <p>
+     *     Invoked on the watcher thread.
+     * </p>
+     *
+     * @see ConfigWatcher
+     */
+    public static final Event<ConfigReloadedEvent> CONFIG_RELOADED_EVENT = Event.createEvent(ConfigReloadedEvent.class, handlers -> configHolder -> {
+        for (final ConfigReloadedEvent handler : handlers) handler.onConfigReloaded(configHolder);
+    });
+
 
     /**
      * Handler for {@link #JANKSON_CONFIGURATION_EVENT}.
@@ -39,4 +56,17 @@ public final class OffsetConfig538Events {
          */
         void configureBuilder(final @NotNull Jankson.Builder builder);
     }
+
+    /**
+     * Handler for {@link #CONFIG_RELOADED_EVENT}.
+     */
+    @FunctionalInterface
+    public interface ConfigReloadedEvent {
+        /**
+         * Called after the provided {@link ConfigHolder} has been reloaded.
+         *
+         * @param configHolder the reloaded {@link ConfigHolder}.
+         */
+        void onConfigReloaded(final @NotNull ConfigHolder<?> configHolder);
+    }
 }
@@ -0,0 +1,202 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.*;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A compact binary encoding of Jankson's json tree, including comments.
+ * <p>
+ *     Much cheaper to decode than parsing json5 text.
+ * </p>
+ */
+@ApiStatus.Internal
+public final class BinaryJson {
+    private static final byte NULL = 0;
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+    private static final byte STRING = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte TRUE = 6;
+    private static final byte FALSE = 7;
+    private static final byte BIG_INTEGER = 8;
+    private static final byte BIG_DECIMAL = 9;
+
+    private BinaryJson() {
+
+    }
+
+    /**
+     * Writes the provided element.
+     *
+     * @param out where to write to
+     * @param element the element to write
+     * @throws IOException when writing fails.
+     */
+    public static void write(final @NotNull DataOutput out, final @NotNull JsonElement element) throws IOException {
+        if (element instanceof final JsonObject object) {
+            out.writeByte(OBJECT);
+            out.writeInt(object.size());
+            for (final Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                writeString(out, entry.getKey());
+                writeComment(out, object.getComment(entry.getKey()));
+                write(out, entry.getValue());
+            }
+            return;
+        }
+        if (element instanceof final JsonArray array) {
+            out.writeByte(ARRAY);
+            out.writeInt(array.size());
+            for (int i = 0; i < array.size(); i++) {
+                writeComment(out, array.getComment(i));
+                write(out, array.get(i));
+            }
+            return;
+        }
+        if (element instanceof final JsonPrimitive primitive) {
+            writePrimitive(out, primitive.getValue());
+            return;
+        }
+
+        out.writeByte(NULL);
+    }
+
+    private static void writePrimitive(final @NotNull DataOutput out, final @Nullable Object value) throws IOException {
+        if (value instanceof final Boolean bool) {
+            out.writeByte(bool ? TRUE : FALSE);
+        } else if (value instanceof final BigInteger bigInteger) {
+            out.writeByte(BIG_INTEGER);
+            writeString(out, bigInteger.toString());
+        } else if (value instanceof final BigDecimal bigDecimal) {
+            out.writeByte(BIG_DECIMAL);
+            writeString(out, bigDecimal.toString());
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof final Number number) {
+            out.writeByte(LONG);
+            out.writeLong(number.longValue());
+        } else if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            // Strings and characters
+            out.writeByte(STRING);
+            writeString(out, value.toString());
+        }
+    }
+
+    /**
+     * Reads an element written by {@link #write(DataOutput, JsonElement)}.
+     *
+     * @param in where to read from
+     * @return the read element
+     * @throws IOException when reading fails or the data is malformed.
+     */
+    public static @NotNull JsonElement read(final @NotNull DataInput in) throws IOException {
+        return read(in, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads an element written by {@link #write(DataOutput, JsonElement)}, failing on strings longer than the provided amount of bytes.
+     * <p>
+     *     Use the size of the data when it's known, so corrupted lengths don't cause huge allocations.
+     * </p>
+     *
+     * @param in where to read from
+     * @param maxLength the maximum length of a string in bytes
+     * @return the read element
+     * @throws IOException when reading fails or the data is malformed.
+     */
+    public static @NotNull JsonElement read(final @NotNull DataInput in, final long maxLength) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+            case OBJECT -> {
+                final JsonObject object = new JsonObject();
+                final int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    final String key = readString(in, maxLength);
+                    final String comment = readComment(in, maxLength);
+                    final JsonElement value = read(in, maxLength);
+
+                    if (comment == null) object.put(key, value);
+                    else object.put(key, value, comment);
+                }
+                return object;
+            }
+            case ARRAY -> {
+                final JsonArray array = new JsonArray();
+                final int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    final String comment = readComment(in, maxLength);
+                    final JsonElement value = read(in, maxLength);
+
+                    if (comment == null) array.add(value);
+                    else array.add(value, comment);
+                }
+                return array;
+            }
+            case NULL -> {
+                return JsonNull.INSTANCE;
+            }
+            case STRING -> {
+                return new JsonPrimitive(readString(in, maxLength));
+            }
+            case LONG -> {
+                return new JsonPrimitive(in.readLong());
+            }
+            case DOUBLE -> {
+                return new JsonPrimitive(in.readDouble());
+            }
+            case TRUE -> {
+                return new JsonPrimitive(Boolean.TRUE);
+            }
+            case FALSE -> {
+                return new JsonPrimitive(Boolean.FALSE);
+            }
+            case BIG_INTEGER -> {
+                return new JsonPrimitive(new BigInteger(readString(in, maxLength)));
+            }
+            case BIG_DECIMAL -> {
+                return new JsonPrimitive(new BigDecimal(readString(in, maxLength)));
+            }
+            default -> throw new IOException("Unknown element type '%s'!".formatted(type));
+        }
+    }
+
+    private static void writeComment(final @NotNull DataOutput out, final @Nullable String comment) throws IOException {
+        out.writeBoolean(comment != null);
+        if (comment != null) writeString(out, comment);
+    }
+
+    private static @Nullable String readComment(final @NotNull DataInput in, final long maxLength) throws IOException {
+        if (!in.readBoolean()) return null;
+        return readString(in, maxLength);
+    }
+
+    // DataOutput.writeUTF is limited to 64KiB, which isn't enough for long strings
+    private static void writeString(final @NotNull DataOutput out, final @NotNull String string) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static @NotNull String readString(final @NotNull DataInput in, final long maxLength) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) throw new IOException("Negative string length '%s'!".formatted(length));
+        if (length > maxLength) throw new IOException("String length '%s' is longer than the data!".formatted(length));
+
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
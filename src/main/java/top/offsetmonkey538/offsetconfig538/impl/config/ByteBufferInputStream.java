@@ -0,0 +1,45 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link InputStream} reading directly from a {@link ByteBuffer}, without copying it.
+ */
+@ApiStatus.Internal
+public final class ByteBufferInputStream extends InputStream {
+    private final @NotNull ByteBuffer buffer;
+
+    /**
+     * Creates a new stream reading from the provided buffer.
+     *
+     * @param buffer the buffer to read from, starting at its current position
+     */
+    public ByteBufferInputStream(final @NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        if (!buffer.hasRemaining()) return -1;
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(final byte @NotNull [] bytes, final int offset, final int length) {
+        if (length == 0) return 0;
+        if (!buffer.hasRemaining()) return -1;
+
+        final int readLength = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, readLength);
+        return readLength;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
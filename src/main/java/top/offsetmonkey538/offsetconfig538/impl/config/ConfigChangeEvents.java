@@ -0,0 +1,225 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.JsonElement;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigHolder;
+import top.offsetmonkey538.offsetconfig538.api.config.LazySection;
+import top.offsetmonkey538.offsetconfig538.api.event.ConfigChangeListener;
+import top.offsetmonkey538.offsetconfig538.api.event.Event;
+import top.offsetmonkey538.offsetconfig538.impl.event.EventImpl;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The per key change events of a {@link ConfigHolder}.
+ * <p>
+ *     Only key paths with listeners are compared when the held config is replaced.
+ *     <br>
+ *     Values are compared through the {@link ConfigCodec} of their class, so key paths through classes without one are rejected.
+ *     Unloaded {@link LazySection}s are compared by their json and only loaded when it differs.
+ * </p>
+ */
+@ApiStatus.Internal
+public final class ConfigChangeEvents {
+    private static final ClassValue<Boolean> OVERRIDES_EQUALS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(final @NotNull Class<?> type) {
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final @NotNull Class<?> configClass;
+    private final Map<String, KeyEvent> events = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the change events for a holder of the provided config class.
+     *
+     * @param configClass the class of the held config
+     */
+    public ConfigChangeEvents(final @NotNull Class<?> configClass) {
+        this.configClass = configClass;
+    }
+
+    /**
+     * Returns the event for the provided key path, creating it if needed.
+     *
+     * @param keyPath the key path, names of fields separated by dots
+     * @param valueType the type of the value at the key path
+     * @return the event for the provided key path.
+     * @param <V> the type of the value at the key path
+     * @throws IllegalArgumentException when the key path doesn't exist, or the value at it isn't of the provided type.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> @NotNull Event<ConfigChangeListener<V>> get(final @NotNull String keyPath, final @NotNull Class<V> valueType) {
+        final String[] path = keyPath.split("\\.");
+        validate(keyPath, path, valueType);
+
+        final KeyEvent keyEvent = events.computeIfAbsent(keyPath, key -> new KeyEvent(path, new EventImpl<>((Class<ConfigChangeListener<Object>>) (Class<?>) ConfigChangeListener.class, handlers -> (oldValue, newValue) -> {
+            for (final ConfigChangeListener<Object> handler : handlers) handler.onChange(oldValue, newValue);
+        })));
+        return (Event<ConfigChangeListener<V>>) (Event<?>) keyEvent.event();
+    }
+
+    /**
+     * Invokes the events of the key paths whose values differ between the provided configs.
+     *
+     * @param configHolder the holder whose config was replaced, used for logging
+     * @param oldConfig the previously held config
+     * @param newConfig the newly held config
+     */
+    public void fire(final @NotNull ConfigHolder<?> configHolder, final @NotNull Object oldConfig, final @NotNull Object newConfig) {
+        if (events.isEmpty() || oldConfig == newConfig) return;
+
+        for (final Map.Entry<String, KeyEvent> entry : events.entrySet()) {
+            final KeyEvent keyEvent = entry.getValue();
+            if (keyEvent.event().getListenerCount() == 0) continue;
+
+            try {
+                final Change change = resolve(oldConfig, newConfig, keyEvent.path());
+                if (change == null || valuesEqual(change.oldValue(), change.newValue())) continue;
+
+                keyEvent.event().getInvoker().onChange(change.oldValue(), change.newValue());
+            } catch (Throwable e) {
+                configHolder.getErrorHandler().log("Change listener for key '%s' of config '%s' failed!", e, entry.getKey(), configHolder);
+            }
+        }
+    }
+
+    private void validate(final @NotNull String keyPath, final @NotNull String @NotNull [] path, final @NotNull Class<?> valueType) {
+        Type currentType = configClass;
+        for (final String segment : path) {
+            currentType = unwrapLazy(currentType);
+            final Class<?> rawType = rawType(currentType);
+
+            if (Map.class.isAssignableFrom(rawType)) {
+                currentType = typeArgument(currentType, 1);
+                continue;
+            }
+
+            final ConfigCodec<?> codec = ConfigCodec.of(rawType);
+            if (codec == null) throw unsupported(keyPath, rawType);
+            final ConfigCodec.FieldCodec field = codec.getFieldOrShard(segment);
+            if (field == null) throw new IllegalArgumentException("Key path '%s' doesn't exist in config '%s'!".formatted(keyPath, configClass.getName()));
+            currentType = field.getGenericType();
+        }
+
+        final Class<?> rawType = MethodType.methodType(rawType(unwrapLazy(currentType))).wrap().returnType();
+        // Values of abstract types are checked when they're compared
+        if (!rawType.isArray() && !rawType.isInterface() && !Modifier.isAbstract(rawType.getModifiers()) && !OVERRIDES_EQUALS.get(rawType) && ConfigCodec.of(rawType) == null) throw unsupported(keyPath, rawType);
+        if (rawType != Object.class && !valueType.isAssignableFrom(rawType)) throw new IllegalArgumentException("Value at key path '%s' in config '%s' is of type '%s', not '%s'!".formatted(keyPath, configClass.getName(), rawType.getName(), valueType.getName()));
+    }
+
+    private static @NotNull IllegalArgumentException unsupported(final @NotNull String keyPath, final @NotNull Class<?> type) {
+        return new IllegalArgumentException("Key path '%s' goes through class '%s', which isn't supported by change events! Classes need non final fields or an equals implementation.".formatted(keyPath, type.getName()));
+    }
+
+    /**
+     * Resolves the key path in both configs at once, so unloaded {@link LazySection}s along it only have to be loaded if they differ.
+     *
+     * @return the old and new value at the key path, or {@code null} if they're known to be the same.
+     */
+    private static @Nullable Change resolve(final @NotNull Object oldConfig, final @NotNull Object newConfig, final @NotNull String @NotNull [] path) {
+        Object oldValue = oldConfig;
+        Object newValue = newConfig;
+        for (final String segment : path) {
+            if (oldValue == newValue || sameJson(oldValue, newValue)) return null;
+            oldValue = step(load(oldValue), segment);
+            newValue = step(load(newValue), segment);
+        }
+        if (oldValue == newValue || sameJson(oldValue, newValue)) return null;
+        return new Change(load(oldValue), load(newValue));
+    }
+
+    private static @Nullable Object step(final @Nullable Object current, final @NotNull String segment) {
+        if (current == null) return null;
+        if (current instanceof final Map<?, ?> map) return map.get(segment);
+
+        final ConfigCodec<?> codec = ConfigCodec.of(current.getClass());
+        final ConfigCodec.FieldCodec field = codec == null ? null : codec.getFieldOrShard(segment);
+        return field == null ? null : field.get(current);
+    }
+
+    private static @Nullable Object load(final @Nullable Object value) {
+        return value instanceof final LazySection<?> section ? section.get() : value;
+    }
+
+    /**
+     * Whether both values are unloaded {@link LazySection}s of the same json.
+     */
+    private static boolean sameJson(final @Nullable Object first, final @Nullable Object second) {
+        if (!(first instanceof final LazySectionImpl<?> firstSection) || !(second instanceof final LazySectionImpl<?> secondSection)) return false;
+
+        final JsonElement firstJson = firstSection.getJson();
+        return firstJson != null && firstJson.equals(secondSection.getJson());
+    }
+
+    /**
+     * Compares with {@link Object#equals(Object) equals}, or field by field for classes that don't override it.
+     */
+    private static boolean valuesEqual(final @Nullable Object first, final @Nullable Object second) {
+        if (first == second) return true;
+        if (first == null || second == null || first.getClass() != second.getClass()) return false;
+        if (first.getClass().isArray()) return Objects.deepEquals(first, second);
+        if (OVERRIDES_EQUALS.get(first.getClass())) return first.equals(second);
+        if (sameJson(first, second)) return true;
+        if (first instanceof final LazySection<?> firstSection) return valuesEqual(firstSection.get(), ((LazySection<?>) second).get());
+
+        final ConfigCodec<?> codec = ConfigCodec.of(first.getClass());
+        if (codec == null) return false;
+
+        for (final ConfigCodec.FieldCodec field : codec.getFields()) {
+            if (!valuesEqual(field.get(first), field.get(second))) return false;
+        }
+        for (final ConfigCodec.FieldCodec field : codec.getShards()) {
+            if (!valuesEqual(field.get(first), field.get(second))) return false;
+        }
+        return true;
+    }
+
+    private static @NotNull Type unwrapLazy(final @NotNull Type type) {
+        return rawType(type) == LazySection.class ? typeArgument(type, 0) : type;
+    }
+
+    private static @NotNull Class<?> rawType(final @NotNull Type type) {
+        if (type instanceof final Class<?> clazz) return clazz;
+        if (type instanceof final ParameterizedType parameterizedType && parameterizedType.getRawType() instanceof final Class<?> clazz) return clazz;
+        return Object.class;
+    }
+
+    private static @NotNull Type typeArgument(final @NotNull Type type, final int index) {
+        if (type instanceof final ParameterizedType parameterizedType && parameterizedType.getActualTypeArguments().length > index) return parameterizedType.getActualTypeArguments()[index];
+        return Object.class;
+    }
+
+    /**
+     * The values at a key path in the old and new config.
+     *
+     * @param oldValue the value in the previously held config
+     * @param newValue the value in the newly held config
+     */
+    private record Change(@Nullable Object oldValue, @Nullable Object newValue) {
+
+    }
+
+    /**
+     * The event of a single key path.
+     *
+     * @param path the key path split into field names
+     * @param event the event invoked when the value at the key path changes
+     */
+    private record KeyEvent(@NotNull String @NotNull [] path, @NotNull EventImpl<ConfigChangeListener<Object>> event) {
+
+    }
+}
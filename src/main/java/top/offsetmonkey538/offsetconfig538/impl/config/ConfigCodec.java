@@ -0,0 +1,499 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.*;
+import blue.endless.jankson.annotation.SerializedName;
+import blue.endless.jankson.api.DeserializationException;
+import blue.endless.jankson.api.Marshaller;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.api.config.Config;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigShard;
+import top.offsetmonkey538.offsetconfig538.api.config.ErrorHandler;
+import top.offsetmonkey538.offsetconfig538.api.config.LazySection;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * (De)serializes objects field by field using {@link VarHandle}s created once per class.
+ * <p>
+ *     Replaces Jankson's reflective (de)serialization of config classes, which looks up and accesses every field reflectively on every load and save.
+ *     Primitive and string fields are converted directly, everything else is still passed to Jankson's {@link Marshaller},
+ *     so custom serializers for field types keep working.
+ * </p>
+ * <p>
+ *     {@link LazySection} fields are kept as json until they're first accessed.
+ *     {@link ConfigShard} fields are stored in their own files, so they're skipped.
+ * </p>
+ * <p>
+ *     Uses the same fields as Jankson: public fields (including inherited ones) first and then the non-public fields declared by the class itself,
+ *     skipping static and transient fields. Respects {@link Comment} and {@link SerializedName}.
+ * </p>
+ *
+ * @param <T> the type (de)serialized by this codec
+ */
+@ApiStatus.Internal
+public final class ConfigCodec<T> {
+    private static final ClassValue<Optional<ConfigCodec<?>>> CODECS = new ClassValue<>() {
+        @Override
+        protected Optional<ConfigCodec<?>> computeValue(final @NotNull Class<?> type) {
+            return Optional.ofNullable(create(type));
+        }
+    };
+
+    private final @NotNull Class<T> type;
+    private final @NotNull List<FieldCodec> fields;
+    private final @NotNull List<FieldCodec> shards;
+    private final @NotNull Map<String, FieldCodec> fieldsByName;
+
+    private ConfigCodec(final @NotNull Class<T> type, final @NotNull List<FieldCodec> fields, final @NotNull List<FieldCodec> shards) {
+        this.type = type;
+        this.fields = fields;
+        this.shards = shards;
+
+        final Map<String, FieldCodec> fieldsByName = new HashMap<>();
+        for (final FieldCodec field : fields) fieldsByName.put(field.name, field);
+        this.fieldsByName = fieldsByName;
+    }
+
+    /**
+     * Returns the codec for the provided class, creating it if needed.
+     *
+     * @param type the class to get the codec for
+     * @return the codec for the provided class, or {@code null} if the class can't be handled by a codec (for example when it has final fields).
+     * @param <T> the class to get the codec for
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @Nullable ConfigCodec<T> of(final @NotNull Class<T> type) {
+        return (ConfigCodec<T>) CODECS.get(type).orElse(null);
+    }
+
+    private static <T> @Nullable ConfigCodec<T> create(final @NotNull Class<T> type) {
+        final List<Field> reflectedFields = new ArrayList<>();
+        for (final Field field : type.getFields()) {
+            if (isSerialized(field)) reflectedFields.add(field);
+        }
+        for (final Field field : type.getDeclaredFields()) {
+            if (!Modifier.isPublic(field.getModifiers()) && isSerialized(field)) reflectedFields.add(field);
+        }
+
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+
+            final List<FieldCodec> fields = new ArrayList<>(reflectedFields.size());
+            final List<FieldCodec> shards = new ArrayList<>();
+            for (final Field field : reflectedFields) {
+                // Fields that can't be set can't be deserialized, let Jankson deal with it
+                if (Modifier.isFinal(field.getModifiers())) return null;
+
+                final MethodHandles.Lookup fieldLookup = field.getDeclaringClass() == type ? lookup : MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+                final FieldCodec fieldCodec = new FieldCodec(field, fieldLookup.unreflectVarHandle(field));
+
+                if (field.isAnnotationPresent(ConfigShard.class) && Config.class.isAssignableFrom(field.getType())) shards.add(fieldCodec);
+                else fields.add(fieldCodec);
+            }
+            return new ConfigCodec<>(type, List.copyOf(fields), List.copyOf(shards));
+        } catch (IllegalAccessException | RuntimeException e) {
+            // Inaccessible (module restrictions and such), let Jankson deal with it
+            return null;
+        }
+    }
+
+    private static boolean isSerialized(final @NotNull Field field) {
+        final int modifiers = field.getModifiers();
+        return !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers);
+    }
+
+    /**
+     * Returns the class (de)serialized by this codec.
+     *
+     * @return the class (de)serialized by this codec.
+     */
+    public @NotNull Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the serialized fields, in the order they're written in. Doesn't include {@link #getShards() shards}.
+     *
+     * @return the serialized fields, in the order they're written in.
+     */
+    public @NotNull List<FieldCodec> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the {@link ConfigShard} fields, which are stored in their own files.
+     *
+     * @return the {@link ConfigShard} fields.
+     */
+    public @NotNull List<FieldCodec> getShards() {
+        return shards;
+    }
+
+    /**
+     * Returns the field with the provided serialized name.
+     *
+     * @param name the serialized name of the field
+     * @return the field with the provided serialized name, or {@code null} if there isn't one.
+     */
+    public @Nullable FieldCodec getField(final @NotNull String name) {
+        return fieldsByName.get(name);
+    }
+
+    /**
+     * Returns the field or {@link #getShards() shard} with the provided serialized name.
+     *
+     * @param name the serialized name of the field
+     * @return the field or shard with the provided serialized name, or {@code null} if there isn't one.
+     */
+    public @Nullable FieldCodec getFieldOrShard(final @NotNull String name) {
+        final FieldCodec field = fieldsByName.get(name);
+        if (field != null) return field;
+
+        for (final FieldCodec shard : shards) {
+            if (shard.name.equals(name)) return shard;
+        }
+        return null;
+    }
+
+    /**
+     * Serializes all fields of the provided object.
+     *
+     * @param object the object to serialize
+     * @param marshaller the {@link Marshaller} used for non-primitive fields
+     * @return the serialized object.
+     */
+    public @NotNull JsonObject serialize(final @NotNull T object, final @NotNull Marshaller marshaller) {
+        final JsonObject json = new JsonObject();
+        for (final FieldCodec field : fields) {
+            final JsonElement value = field.serialize(object, marshaller);
+
+            if (field.comment == null) json.put(field.name, value);
+            else json.put(field.name, value, field.comment);
+        }
+        return json;
+    }
+
+    /**
+     * Deserializes the provided json into the fields of the provided object.
+     * <p>
+     *     Fields missing from the json keep their current values.
+     * </p>
+     *
+     * @param target the object to deserialize into
+     * @param json the json to deserialize
+     * @param marshaller the {@link Marshaller} used for non-primitive fields
+     * @param strict when {@code true}, unknown keys and values that can't be converted cause a {@link DeserializationException}. Otherwise they're skipped.
+     * @param errorHandler the {@link ErrorHandler} lazy sections report deserialization errors to
+     * @throws DeserializationException when {@code strict} and the json doesn't match the class.
+     */
+    public void deserialize(final @NotNull T target, final @NotNull JsonObject json, final @NotNull Marshaller marshaller, final boolean strict, final @NotNull ErrorHandler errorHandler) throws DeserializationException {
+        for (final Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            final FieldCodec field = fieldsByName.get(entry.getKey());
+            if (field == null) {
+                if (strict) throw new DeserializationException("Key '%s' doesn't correspond to a field in '%s'!".formatted(entry.getKey(), type.getName()));
+                continue;
+            }
+
+            try {
+                field.deserialize(target, entry.getValue(), marshaller, strict, errorHandler);
+            } catch (DeserializationException e) {
+                if (strict) throw e;
+            }
+        }
+    }
+
+    /**
+     * (De)serializes a single field.
+     */
+    public static final class FieldCodec {
+        private final @NotNull String name;
+        private final @Nullable String comment;
+        private final @NotNull Class<?> fieldType;
+        private final @NotNull Type genericType;
+        private final @NotNull Kind kind;
+        private final @NotNull VarHandle handle;
+
+        private FieldCodec(final @NotNull Field field, final @NotNull VarHandle handle) {
+            final SerializedName serializedName = field.getAnnotation(SerializedName.class);
+            final Comment comment = field.getAnnotation(Comment.class);
+
+            this.name = serializedName == null ? field.getName() : serializedName.value();
+            this.comment = comment == null ? null : comment.value();
+            this.fieldType = field.getType();
+            this.genericType = field.getGenericType();
+            this.kind = Kind.of(fieldType);
+            this.handle = handle;
+        }
+
+        /**
+         * Returns the serialized name of this field.
+         *
+         * @return the serialized name of this field.
+         */
+        public @NotNull String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the comment written above this field, if any.
+         *
+         * @return the comment written above this field, or {@code null} if there isn't one.
+         */
+        public @Nullable String getComment() {
+            return comment;
+        }
+
+        /**
+         * Returns the type of this field.
+         *
+         * @return the type of this field.
+         */
+        public @NotNull Class<?> getFieldType() {
+            return fieldType;
+        }
+
+        /**
+         * Returns the generic type of this field.
+         *
+         * @return the generic type of this field.
+         */
+        public @NotNull Type getGenericType() {
+            return genericType;
+        }
+
+        /**
+         * Returns the value of this field in the provided object. Primitives are boxed.
+         *
+         * @param owner the object to get the value from
+         * @return the value of this field in the provided object.
+         */
+        public @Nullable Object get(final @NotNull Object owner) {
+            return handle.get(owner);
+        }
+
+        /**
+         * Sets the value of this field in the provided object.
+         *
+         * @param owner the object to set the value in
+         * @param value the new value. Primitives must be boxed and not null.
+         */
+        public void set(final @NotNull Object owner, final @Nullable Object value) {
+            handle.set(owner, value);
+        }
+
+        /**
+         * Serializes the value of this field in the provided object.
+         *
+         * @param owner the object to serialize the value of
+         * @param marshaller the {@link Marshaller} used for non-primitive values
+         * @return the serialized value.
+         */
+        public @NotNull JsonElement serialize(final @NotNull Object owner, final @NotNull Marshaller marshaller) {
+            return switch (kind) {
+                case BOOLEAN -> new JsonPrimitive((boolean) handle.get(owner));
+                case BYTE -> new JsonPrimitive((byte) handle.get(owner));
+                case SHORT -> new JsonPrimitive((short) handle.get(owner));
+                case INT -> new JsonPrimitive((int) handle.get(owner));
+                case LONG -> new JsonPrimitive((long) handle.get(owner));
+                case FLOAT -> new JsonPrimitive((float) handle.get(owner));
+                case DOUBLE -> new JsonPrimitive((double) handle.get(owner));
+                case STRING -> {
+                    final String value = (String) handle.get(owner);
+                    yield value == null ? JsonNull.INSTANCE : new JsonPrimitive(value);
+                }
+                case LAZY -> {
+                    final LazySectionImpl<?> section = (LazySectionImpl<?>) handle.get(owner);
+                    yield section == null ? JsonNull.INSTANCE : section.toJson(marshaller);
+                }
+                case OTHER -> {
+                    final JsonElement value = marshaller.serialize(handle.get(owner));
+                    yield value == null ? JsonNull.INSTANCE : value;
+                }
+            };
+        }
+
+        /**
+         * Deserializes the provided json into this field of the provided object.
+         *
+         * @param owner the object to set the value in
+         * @param json the json to deserialize
+         * @param marshaller the {@link Marshaller} used for non-primitive values
+         * @param strict whether to use {@link Marshaller#marshallCarefully(Class, JsonElement)} where possible
+         * @param errorHandler the {@link ErrorHandler} lazy sections report deserialization errors to
+         * @throws DeserializationException when the json couldn't be converted to the type of this field.
+         */
+        public void deserialize(final @NotNull Object owner, final @NotNull JsonElement json, final @NotNull Marshaller marshaller, final boolean strict, final @NotNull ErrorHandler errorHandler) throws DeserializationException {
+            if (json instanceof final JsonPrimitive primitive && setPrimitive(owner, primitive.getValue(), strict)) return;
+
+            if (kind == Kind.LAZY) {
+                // Sections that failed to deserialize fall back to the value they had before
+                final LazySection<?> currentSection = (LazySection<?>) handle.get(owner);
+                handle.set(owner, new LazySectionImpl<>(json, lazyValueType(), marshaller, currentSection == null ? null : currentSection.get(), errorHandler));
+                return;
+            }
+
+            if (json instanceof JsonNull) {
+                // Primitives can't be null, keep the current value
+                if (!fieldType.isPrimitive()) handle.set(owner, (Object) null);
+                return;
+            }
+
+            handle.set(owner, unmarshall(json, marshaller, strict));
+        }
+
+        /**
+         * Converts the provided json to the type of this field, without setting it.
+         *
+         * @param json the json to convert
+         * @param marshaller the {@link Marshaller} used for non-primitive values
+         * @param strict whether to use {@link Marshaller#marshallCarefully(Class, JsonElement)} where possible
+         * @return the converted value.
+         * @throws DeserializationException when the json couldn't be converted to the type of this field.
+         */
+        public @Nullable Object unmarshall(final @NotNull JsonElement json, final @NotNull Marshaller marshaller, final boolean strict) throws DeserializationException {
+            final Class<?> boxedType = kind.boxedType == null ? fieldType : kind.boxedType;
+            try {
+                final Object value;
+                if (genericType instanceof ParameterizedType) {
+                    value = marshaller.marshall(genericType, json);
+                    // There's no careful version for generic types, Jankson returns null or leaves out values it can't convert instead
+                    if (strict) checkGeneric(json, value);
+                }
+                else if (strict) value = marshaller.marshallCarefully(boxedType, json);
+                else value = marshaller.marshall(boxedType, json);
+
+                if (value == null && fieldType.isPrimitive()) throw new DeserializationException("Can't convert '%s' to '%s'!".formatted(json.toJson(), fieldType.getName()));
+                if (strict && value instanceof final Number number) checkRange(number);
+                return value;
+            } catch (RuntimeException e) {
+                throw new DeserializationException("Can't convert '%s' to '%s'!".formatted(json.toJson(), genericType.getTypeName()), e);
+            }
+        }
+
+        private void checkGeneric(final @NotNull JsonElement json, final @Nullable Object value) throws DeserializationException {
+            final boolean converted;
+            if (json instanceof JsonNull) converted = true;
+            else if (value == null) converted = false;
+            else if (json instanceof final JsonArray array && value instanceof final Collection<?> collection) converted = (collection instanceof Set || collection.size() == array.size()) && (!collection.contains(null) || array.contains(JsonNull.INSTANCE));
+            else if (json instanceof final JsonObject object && value instanceof final Map<?, ?> map) converted = map.size() == object.size() && (!map.containsValue(null) || object.containsValue(JsonNull.INSTANCE));
+            else converted = true;
+
+            if (!converted) throw new DeserializationException("Can't convert '%s' to '%s'!".formatted(json.toJson(), genericType.getTypeName()));
+        }
+
+        // Narrowing silently wraps around, which isn't what anyone wants when it's in a config
+        private void checkRange(final @NotNull Number number) throws DeserializationException {
+            final long min;
+            final long max;
+            switch (kind) {
+                case BYTE -> {
+                    min = Byte.MIN_VALUE;
+                    max = Byte.MAX_VALUE;
+                }
+                case SHORT -> {
+                    min = Short.MIN_VALUE;
+                    max = Short.MAX_VALUE;
+                }
+                case INT -> {
+                    min = Integer.MIN_VALUE;
+                    max = Integer.MAX_VALUE;
+                }
+                default -> {
+                    return;
+                }
+            }
+
+            final double value = number.doubleValue();
+            if (value < min || value > max) throw new DeserializationException("Value '%s' is out of range for '%s'!".formatted(number, fieldType.getName()));
+        }
+
+        private @NotNull Type lazyValueType() {
+            if (genericType instanceof final ParameterizedType parameterizedType) return parameterizedType.getActualTypeArguments()[0];
+            return Object.class;
+        }
+
+        // Fast path for the common cases, returns false if the value isn't of the expected type
+        private boolean setPrimitive(final @NotNull Object owner, final @Nullable Object value, final boolean strict) throws DeserializationException {
+            if (strict && value instanceof final Number number) checkRange(number);
+
+            switch (kind) {
+                case BOOLEAN -> {
+                    if (!(value instanceof final Boolean bool)) return false;
+                    handle.set(owner, (boolean) bool);
+                }
+                case BYTE -> {
+                    if (!(value instanceof final Number number)) return false;
+                    handle.set(owner, number.byteValue());
+                }
+                case SHORT -> {
+                    if (!(value instanceof final Number number)) return false;
+                    handle.set(owner, number.shortValue());
+                }
+                case INT -> {
+                    if (!(value instanceof final Number number)) return false;
+                    handle.set(owner, number.intValue());
+                }
+                case LONG -> {
+                    if (!(value instanceof final Number number)) return false;
+                    handle.set(owner, number.longValue());
+                }
+                case FLOAT -> {
+                    if (!(value instanceof final Number number)) return false;
+                    handle.set(owner, number.floatValue());
+                }
+                case DOUBLE -> {
+                    if (!(value instanceof final Number number)) return false;
+                    handle.set(owner, number.doubleValue());
+                }
+                case STRING -> {
+                    if (!(value instanceof final String string)) return false;
+                    handle.set(owner, string);
+                }
+                case LAZY, OTHER -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private enum Kind {
+        BOOLEAN(Boolean.class),
+        BYTE(Byte.class),
+        SHORT(Short.class),
+        INT(Integer.class),
+        LONG(Long.class),
+        FLOAT(Float.class),
+        DOUBLE(Double.class),
+        STRING(null),
+        LAZY(null),
+        OTHER(null);
+
+        private final @Nullable Class<?> boxedType;
+
+        Kind(final @Nullable Class<?> boxedType) {
+            this.boxedType = boxedType;
+        }
+
+        private static @NotNull Kind of(final @NotNull Class<?> type) {
+            if (type == boolean.class) return BOOLEAN;
+            if (type == byte.class) return BYTE;
+            if (type == short.class) return SHORT;
+            if (type == int.class) return INT;
+            if (type == long.class) return LONG;
+            if (type == float.class) return FLOAT;
+            if (type == double.class) return DOUBLE;
+            if (type == String.class) return STRING;
+            if (type == LazySection.class) return LAZY;
+            return OTHER;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.JsonElement;
+import blue.endless.jankson.JsonObject;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.api.config.Config;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares the values of entries of loaded configs between holders with identical entries.
+ * <p>
+ *     Config objects themselves are never shared, as they may point at different files.
+ *     Only immutable values are shared: boxed primitives are replaced with ones loaded from identical json by other configs of the same class
+ *     and strings are interned, also inside collections. Collections and other objects stay owned by their config, so modifying them in place is safe.
+ *     <br>
+ *     Shared values are only weakly referenced, so they're forgotten once no config uses them anymore.
+ * </p>
+ *
+ * @see Config#isDeduplicated()
+ */
+@ApiStatus.Internal
+public final class ConfigDeduplication {
+    private static final Set<Class<?>> SHAREABLE_TYPES = Set.of(Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
+    private static final ClassValue<Map<Key, SharedReference>> SHARED = new ClassValue<>() {
+        @Override
+        protected Map<Key, SharedReference> computeValue(final @NotNull Class<?> configClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final ReferenceQueue<Object> STALE = new ReferenceQueue<>();
+
+    private ConfigDeduplication() {
+
+    }
+
+    /**
+     * Shares the values of the entries of the provided newly loaded config with other configs.
+     *
+     * @param configClass the class of the config
+     * @param config the newly loaded config, only held by the loading holder
+     * @param json the json the config was loaded from
+     * @param <T> your {@link Config} class
+     */
+    public static <T extends Config> void share(final @NotNull Class<T> configClass, final @NotNull T config, final @NotNull JsonObject json) {
+        final ConfigCodec<T> codec = ConfigCodec.of(configClass);
+        if (codec == null) return;
+
+        expungeStale();
+        final Map<Key, SharedReference> shared = SHARED.get(configClass);
+        for (final ConfigCodec.FieldCodec field : codec.getFields()) {
+            if (field.getFieldType().isPrimitive()) continue;
+
+            final Object value = field.get(config);
+            if (value == null) continue;
+
+            // Enums are already shared, and everything else may be modified in place
+            if (!SHAREABLE_TYPES.contains(value.getClass())) {
+                final Object internedValue = internStrings(value);
+                if (internedValue != value) field.set(config, internedValue);
+                continue;
+            }
+
+            // Values missing from the json are defaults, which the config class may create differently every time
+            final JsonElement valueJson = json.get(field.getName());
+            if (valueJson == null) continue;
+
+            final Object sharedValue = intern(shared, new Key(field.getName(), ByteBuffer.wrap(ContentHashes.hash(valueJson))), value);
+            if (sharedValue != value && sharedValue.getClass() == value.getClass()) field.set(config, sharedValue);
+        }
+    }
+
+    /**
+     * Interns the provided string, or the strings inside the provided collection or map and their nested collections and maps.
+     * <p>
+     *     Collections and maps are modified in place, ones that can't be modified are left alone.
+     * </p>
+     *
+     * @return the interned string, or the provided value.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object internStrings(final Object value) {
+        if (value instanceof final String string) return string.intern();
+
+        try {
+            if (value instanceof final List<?> list) {
+                ((List<Object>) list).replaceAll(ConfigDeduplication::internStrings);
+            } else if (value instanceof final Collection<?> collection) {
+                // Elements can't be replaced in place, so the collection is refilled in its own order
+                final List<Object> elements = new ArrayList<>(collection);
+                collection.clear();
+                for (final Object element : elements) ((Collection<Object>) collection).add(internStrings(element));
+            } else if (value instanceof final Map<?, ?> map) {
+                final Map<Object, Object> entries = new LinkedHashMap<>(map);
+                map.clear();
+                entries.forEach((entryKey, entryValue) -> ((Map<Object, Object>) map).put(internStrings(entryKey), internStrings(entryValue)));
+            }
+        } catch (UnsupportedOperationException e) {
+            // Immutable, clearing fails before anything is modified
+        }
+        return value;
+    }
+
+    /**
+     * Returns the object shared under the provided key, sharing the provided value if there isn't one.
+     */
+    private static @NotNull Object intern(final @NotNull Map<Key, SharedReference> shared, final @NotNull Key key, final @NotNull Object value) {
+        while (true) {
+            final SharedReference existing = shared.get(key);
+            final Object sharedValue = existing == null ? null : existing.get();
+            if (sharedValue != null) return sharedValue;
+
+            final SharedReference reference = new SharedReference(shared, key, value);
+            if (existing == null ? shared.putIfAbsent(key, reference) == null : shared.replace(key, existing, reference)) return value;
+        }
+    }
+
+    private static void expungeStale() {
+        for (Reference<?> reference = STALE.poll(); reference != null; reference = STALE.poll()) {
+            final SharedReference sharedReference = (SharedReference) reference;
+            sharedReference.shared.remove(sharedReference.key, sharedReference);
+        }
+    }
+
+    /**
+     * Identifies a shared object of a config class.
+     *
+     * @param entry the name of the entry
+     * @param contentHash the hash of the json the value was loaded from, wrapped so it's compared by contents
+     */
+    private record Key(@NotNull String entry, @NotNull ByteBuffer contentHash) {
+
+    }
+
+    private static final class SharedReference extends WeakReference<Object> {
+        private final @NotNull Map<Key, SharedReference> shared;
+        private final @NotNull Key key;
+
+        private SharedReference(final @NotNull Map<Key, SharedReference> shared, final @NotNull Key key, final @NotNull Object referent) {
+            super(referent, STALE);
+            this.shared = shared;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the executors used for doing config I/O off the calling thread.
+ */
+@ApiStatus.Internal
+public final class ConfigExecutors {
+    /**
+     * Executor used for reading and writing config files.
+     * <p>
+     *     Uses virtual threads when running on a java version that supports them, daemon platform threads otherwise.
+     * </p>
+     */
+    public static final ExecutorService IO = createIoExecutor();
+
+    private ConfigExecutors() {
+
+    }
+
+    private static @NotNull ExecutorService createIoExecutor() {
+        try {
+            // Compiled against java 17, so has to be looked up reflectively
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ignored) {
+            return Executors.newCachedThreadPool(daemonThreadFactory("OffsetConfig538 IO"));
+        }
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} creating daemon threads named {@code <name> #<number>}.
+     *
+     * @param name the base name of the threads
+     * @return a {@link ThreadFactory} creating daemon threads.
+     */
+    public static @NotNull ThreadFactory daemonThreadFactory(final @NotNull String name) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "%s #%s".formatted(name, threadNumber.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
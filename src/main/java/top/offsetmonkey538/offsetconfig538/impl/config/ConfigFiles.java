@@ -0,0 +1,117 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.api.config.SaveMode;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+/**
+ * Utilities for writing config files.
+ */
+@ApiStatus.Internal
+public final class ConfigFiles {
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private ConfigFiles() {
+
+    }
+
+    /**
+     * Writes a file using the provided {@link SaveMode}.
+     * <p>
+     *     The contents are streamed to disk, the provided {@link ContentWriter} doesn't need to buffer them.
+     * </p>
+     *
+     * @param filePath the file to write
+     * @param saveMode how to write the file
+     * @param contentWriter writes the contents of the file to the provided stream
+     * @return the {@link ContentHashes hash} of the written contents.
+     * @throws IOException when writing fails. With an atomic {@link SaveMode}, the file is left untouched in this case.
+     */
+    public static byte @NotNull [] write(final @NotNull Path filePath, final @NotNull SaveMode saveMode, final @NotNull ContentWriter contentWriter) throws IOException {
+        Files.createDirectories(filePath.toAbsolutePath().getParent());
+        final MessageDigest digest = ContentHashes.newDigest();
+
+        if (saveMode == SaveMode.DIRECT) {
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(filePath)), digest)) {
+                contentWriter.write(out);
+            }
+            return digest.digest();
+        }
+
+        // Replace the target of a symlink instead of the symlink itself
+        final Path targetPath = Files.exists(filePath) ? filePath.toRealPath() : filePath;
+        // Unique, so concurrent writes of the same file never share a temporary file
+        final Path tempPath = targetPath.resolveSibling("%s.%s%s".formatted(targetPath.getFileName(), Long.toUnsignedString(RANDOM.nextLong(), 36), TEMP_FILE_SUFFIX));
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                 OutputStream out = new DigestOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)), digest)) {
+                contentWriter.write(out);
+                out.flush();
+
+                if (saveMode == SaveMode.ATOMIC_SYNC) channel.force(true);
+            }
+
+            copyPermissions(targetPath, tempPath);
+            try {
+                Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            if (saveMode == SaveMode.ATOMIC_SYNC) syncDirectory(targetPath.toAbsolutePath().getParent());
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+
+        return digest.digest();
+    }
+
+    private static void copyPermissions(final @NotNull Path from, final @NotNull Path to) throws IOException {
+        if (!Files.exists(from)) return;
+
+        final PosixFileAttributeView fromView = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        final PosixFileAttributeView toView = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        if (fromView == null || toView == null) return;
+
+        toView.setPermissions(fromView.readAttributes().permissions());
+    }
+
+    private static void syncDirectory(final @NotNull Path directory) {
+        // Makes sure the rename itself is persisted. Not supported on all platforms (Windows), so failures are ignored.
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // Best effort
+        }
+    }
+
+    /**
+     * Writes the contents of a file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * Writes the contents of a file to the provided stream.
+         *
+         * @param out the stream to write to. Shouldn't be closed.
+         * @throws IOException when writing fails.
+         */
+        void write(final @NotNull OutputStream out) throws IOException;
+    }
+}
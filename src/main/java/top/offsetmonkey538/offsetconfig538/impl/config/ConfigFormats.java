@@ -0,0 +1,86 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonElement;
+import blue.endless.jankson.JsonGrammar;
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.api.SyntaxError;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The built-in {@link ConfigFormat}s.
+ */
+@ApiStatus.Internal
+public final class ConfigFormats {
+    /**
+     * Implementation of {@link ConfigFormat#JSON5}
+     */
+    public static final ConfigFormat JSON5 = new JanksonFormat(JsonGrammar.builder().withComments(true).printWhitespace(true).build());
+    /**
+     * Implementation of {@link ConfigFormat#COMPACT_JSON}
+     */
+    public static final ConfigFormat COMPACT_JSON = new JanksonFormat(JsonGrammar.builder().withComments(false).printWhitespace(false).build());
+    /**
+     * Implementation of {@link ConfigFormat#BINARY}
+     */
+    public static final ConfigFormat BINARY = new BinaryFormat();
+
+    private ConfigFormats() {
+
+    }
+
+    private record JanksonFormat(@NotNull JsonGrammar grammar) implements ConfigFormat {
+        @Override
+        public @NotNull JsonObject read(@NotNull InputStream in, @NotNull Jankson jankson) throws IOException, SyntaxError {
+            return jankson.load(in);
+        }
+
+        @Override
+        public void write(@NotNull JsonObject json, @NotNull OutputStream out) throws IOException {
+            final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            json.toJson(writer, grammar, 0);
+            writer.flush();
+        }
+
+        @Override
+        public @NotNull String getFileExtension() {
+            return ".json";
+        }
+    }
+
+    private static final class BinaryFormat implements ConfigFormat {
+        private static final int MAGIC = 0x4F433543; // "OC5C"
+        private static final int FORMAT_VERSION = 1;
+
+        @Override
+        public @NotNull JsonObject read(@NotNull InputStream in, @NotNull Jankson jankson) throws IOException {
+            final DataInputStream dataIn = new DataInputStream(in);
+            if (dataIn.readInt() != MAGIC) throw new IOException("Not a binary config file!");
+            final int formatVersion = dataIn.readInt();
+            if (formatVersion != FORMAT_VERSION) throw new IOException("Unsupported binary config format version '%s'!".formatted(formatVersion));
+
+            final JsonElement json = BinaryJson.read(dataIn);
+            if (!(json instanceof final JsonObject jsonObject)) throw new IOException("Expected root of binary config file to be an object, got '%s' instead!".formatted(json.getClass().getName()));
+            return jsonObject;
+        }
+
+        @Override
+        public void write(@NotNull JsonObject json, @NotNull OutputStream out) throws IOException {
+            final DataOutputStream dataOut = new DataOutputStream(out);
+            dataOut.writeInt(MAGIC);
+            dataOut.writeInt(FORMAT_VERSION);
+            BinaryJson.write(dataOut, json);
+            dataOut.flush();
+        }
+
+        @Override
+        public @NotNull String getFileExtension() {
+            return ".bin";
+        }
+    }
+}
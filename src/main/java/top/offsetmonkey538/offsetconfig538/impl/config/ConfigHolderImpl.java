@@ -1,14 +1,27 @@
 package top.offsetmonkey538.offsetconfig538.impl.config;
 
+import blue.endless.jankson.JsonObject;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import top.offsetmonkey538.offsetconfig538.api.config.Config;
 import top.offsetmonkey538.offsetconfig538.api.config.ConfigHolder;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigState;
 import top.offsetmonkey538.offsetconfig538.api.config.ErrorHandler;
+import top.offsetmonkey538.offsetconfig538.api.event.ConfigChangeListener;
+import top.offsetmonkey538.offsetconfig538.api.event.Event;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Implementation of {@link ConfigHolder}
@@ -17,6 +30,18 @@ import java.util.function.Supplier;
  */
 @ApiStatus.Internal
 public final class ConfigHolderImpl<T extends Config> implements ConfigHolder<T> {
+    /**
+     * {@link VarHandle} for atomically updating {@link #state}.
+     */
+    private static final VarHandle STATE;
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(ConfigHolderImpl.class, "state", ConfigState.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     /**
      * A {@link Supplier<T>} used to create new instances of your {@link Config} containing the default values. Usually the constructor.
      */
@@ -28,21 +53,101 @@ public final class ConfigHolderImpl<T extends Config> implements ConfigHolder<T>
     /**
      * The {@link Class<T>} of the {@link Config}.
      * <br>
-     * Automatically gotten using {@link #config}.{@link Object#getClass() getClass()}
+     * Automatically gotten using {@link #get()}.{@link Object#getClass() getClass()}
      */
     public final @NotNull Class<T> configClass;
     /**
-     * The currently held config.
+     * The currently held config along with its generation.
      * <p>
      *     This may be changed at any time for whatever reason.
      *     <br>
      *     Please use {@link #get()} for getting the config and do not keep a reference to it.
      * </p>
+     * <p>
+     *     Volatile so configs set on one thread are fully visible to readers on other threads.
+     *     Kept in a single object so the config and generation are always replaced together, compare-and-set goes through {@link #STATE}.
+     * </p>
+     */
+    private volatile @NotNull ConfigState<T> state;
+    /**
+     * The {@link blue.endless.jankson.Jankson Jankson} instance last built for this holder, or {@code null} if it hasn't been built yet.
+     * <p>
+     *     Managed by {@link ConfigManagerImpl}.
+     * </p>
+     */
+    volatile @Nullable ConfigManagerImpl.CachedJankson cachedJankson;
+    /**
+     * Lock held while reading or writing the config file, so loads and saves of the same holder never overlap.
+     */
+    final Object ioLock = new Object();
+    /**
+     * The asynchronous save that has been scheduled but hasn't started yet, or {@code null} if there isn't one.
+     * <p>
+     *     Used for merging multiple {@link top.offsetmonkey538.offsetconfig538.api.config.ConfigManager#saveAsync(ConfigHolder) saveAsync} calls into a single write.
+     * </p>
+     */
+    final AtomicReference<CompletableFuture<Void>> pendingSave = new AtomicReference<>();
+    /**
+     * The scheduled save folding the {@link Config#getJournalPath() journal} into the config file, or {@code null} if there isn't one.
+     */
+    final AtomicReference<CompletableFuture<Void>> pendingCompaction = new AtomicReference<>();
+    /**
+     * Hash of the config file contents as last written by us, or {@code null} if unknown.
+     * <p>
+     *     Only accessed while holding {@link #ioLock}.
+     * </p>
      */
-    private @NotNull T config;
+    byte @Nullable [] lastContentHash;
+    /**
+     * The json last loaded from or saved to the config file, or {@code null} if unknown. Used as the base for partial saves.
+     * <p>
+     *     Only kept once the holder has been {@link #partialSaves partially saved}, so other holders don't keep a second copy of the config around.
+     *     Until then, partial saves read the config file again.
+     *     Only accessed while holding {@link #ioLock}.
+     * </p>
+     */
+    @Nullable JsonObject lastJson;
+    /**
+     * Whether the config has been {@link top.offsetmonkey538.offsetconfig538.api.config.ConfigManager#savePartial(ConfigHolder) partially saved}.
+     * <p>
+     *     Only accessed while holding {@link #ioLock}.
+     * </p>
+     */
+    boolean partialSaves;
+    /**
+     * Keys {@link #markDirty(String) marked as changed} since they were last saved.
+     */
+    final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+    /**
+     * The {@link #getGeneration() generation} of the config last loaded from or saved to the config file.
+     */
+    volatile long savedGeneration;
+    /**
+     * Whether the last save of the config file failed.
+     */
+    volatile boolean saveFailed;
+    /**
+     * Whether the config file couldn't be loaded because it's for a newer config version or can't be datafixed.
+     * <p>
+     *     Saves leave the file alone until it has been loaded, so it isn't replaced by a config missing its entries.
+     *     Only accessed while holding {@link #ioLock}.
+     * </p>
+     */
+    boolean fileRejected;
+    /**
+     * The events for {@link #onChange(String, Class) changes of single keys}.
+     */
+    private final @NotNull ConfigChangeEvents changeEvents;
+    /**
+     * Holders of the {@link top.offsetmonkey538.offsetconfig538.api.config.ConfigShard shards} of the config, or {@code null} if they haven't been created yet.
+     * <p>
+     *     Managed by {@link ConfigManagerImpl}. Only accessed while holding {@link #ioLock}.
+     * </p>
+     */
+    @Nullable List<ConfigManagerImpl.Shard> shards;
 
     /**
-     * Initializes a new config holder. Sets {@link #config} from the provided constructor.
+     * Initializes a new config holder. Sets the initial {@link #state} to a config created with the provided constructor.
      *
      * @param defaultConstructor supplier used to create new instances of your {@link Config}. For example {@code MyConfig::new}
      * @param errorHandler the {@link ErrorHandler} to use. For example {@code LOGGER::error} or {@link ErrorHandler#SYSTEM_ERR}
@@ -51,14 +156,31 @@ public final class ConfigHolderImpl<T extends Config> implements ConfigHolder<T>
         this.defaultConstructor = defaultConstructor;
         this.errorHandler = errorHandler;
 
-        this.config = defaultConstructor.get();
+        final T config = defaultConstructor.get();
+        this.state = new ConfigState<>(config, 0);
         //noinspection unchecked: This should always cast correctly, right???
         this.configClass = (Class<T>) config.getClass();
+        this.changeEvents = new ConfigChangeEvents(configClass);
     }
 
     @Contract(pure = true)
     public @NotNull T get() {
-        return config;
+        return state.config();
+    }
+
+    @Override
+    public long getGeneration() {
+        return state.generation();
+    }
+
+    @Override
+    public @NotNull ConfigState<T> getState() {
+        return state;
+    }
+
+    @Override
+    public <R> @NotNull Supplier<R> derive(@NotNull Function<? super T, ? extends R> function) {
+        return new DerivedValue<>(this, function);
     }
 
     @Override
@@ -73,12 +195,103 @@ public final class ConfigHolderImpl<T extends Config> implements ConfigHolder<T>
 
     @Override
     public @NotNull String toString() {
-        return config.getId();
+        return get().getId();
     }
 
     @Override
     public void set(@Nullable T newConfig) {
-        if (newConfig == null) config = defaultConstructor.get();
-        else config = newConfig;
+        final T config = newConfig == null ? defaultConstructor.get() : newConfig;
+
+        while (true) {
+            final ConfigState<T> currentState = state;
+            if (STATE.compareAndSet(this, currentState, new ConfigState<>(config, currentState.generation() + 1))) {
+                changeEvents.fire(this, currentState.config(), config);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(@NotNull T expectedConfig, @Nullable T newConfig) {
+        final T config = newConfig == null ? defaultConstructor.get() : newConfig;
+
+        while (true) {
+            final ConfigState<T> currentState = state;
+            if (currentState.config() != expectedConfig) return false;
+            // Only fails if the generation was bumped by setting the same config again, so retry
+            if (STATE.compareAndSet(this, currentState, new ConfigState<>(config, currentState.generation() + 1))) {
+                changeEvents.fire(this, currentState.config(), config);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public @NotNull T update(@NotNull UnaryOperator<T> updater) {
+        while (true) {
+            final ConfigState<T> currentState = state;
+            final T updatedConfig = updater.apply(currentState.config());
+            final T newConfig = updatedConfig == null ? defaultConstructor.get() : updatedConfig;
+
+            if (STATE.compareAndSet(this, currentState, new ConfigState<>(newConfig, currentState.generation() + 1))) {
+                changeEvents.fire(this, currentState.config(), newConfig);
+                return newConfig;
+            }
+        }
+    }
+
+    @Override
+    public <V> @NotNull Event<ConfigChangeListener<V>> onChange(@NotNull String keyPath, @NotNull Class<V> valueType) {
+        return changeEvents.get(keyPath, valueType);
+    }
+
+    @Override
+    public void markDirty(@NotNull String key) {
+        dirtyKeys.add(key);
+    }
+
+    /**
+     * Returns whether the held config has changes that haven't been saved yet.
+     * <p>
+     *     That is when it has been replaced since it was last loaded or saved, when keys have been {@link #markDirty(String) marked as changed}
+     *     or when an asynchronous save or folding of the journal is pending.
+     * </p>
+     *
+     * @return whether the held config has changes that haven't been saved yet.
+     */
+    boolean isDirty() {
+        return savedGeneration != getGeneration() || !dirtyKeys.isEmpty() || pendingSave.get() != null || pendingCompaction.get() != null;
+    }
+
+    /**
+     * A value derived from the held config, cached until the generation changes.
+     *
+     * @param <T> your {@link Config} class
+     * @param <R> the type of the derived value
+     */
+    private static final class DerivedValue<T extends Config, R> implements Supplier<R> {
+        private final @NotNull ConfigHolderImpl<T> holder;
+        private final @NotNull Function<? super T, ? extends R> function;
+        private volatile @Nullable Computed<R> computed;
+
+        private DerivedValue(final @NotNull ConfigHolderImpl<T> holder, final @NotNull Function<? super T, ? extends R> function) {
+            this.holder = holder;
+            this.function = function;
+        }
+
+        @Override
+        public R get() {
+            final ConfigState<T> state = holder.state;
+            final Computed<R> current = computed;
+            if (current != null && current.generation() == state.generation()) return current.value();
+
+            final R value = function.apply(state.config());
+            computed = new Computed<>(state.generation(), value);
+            return value;
+        }
+
+        private record Computed<R>(long generation, R value) {
+
+        }
     }
 }
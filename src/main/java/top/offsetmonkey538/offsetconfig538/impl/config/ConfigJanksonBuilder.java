@@ -0,0 +1,53 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonElement;
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.api.DeserializerFunction;
+import blue.endless.jankson.api.Marshaller;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link Jankson.Builder} remembering which classes got custom serializers or deserializers.
+ * <p>
+ *     Used for deciding whether a config class can be (de)serialized by its {@link ConfigCodec}, or has to go through Jankson.
+ * </p>
+ */
+@ApiStatus.Internal
+public final class ConfigJanksonBuilder extends Jankson.Builder {
+    private final Set<Class<?>> customTypes = new HashSet<>();
+
+    /**
+     * Returns whether a custom serializer or deserializer was registered for the provided class.
+     *
+     * @param type the class to check
+     * @return whether a custom serializer or deserializer was registered for the provided class.
+     */
+    public boolean isCustom(final @NotNull Class<?> type) {
+        return customTypes.contains(type);
+    }
+
+    @Override
+    public <T> Jankson.Builder registerSerializer(final Class<T> clazz, final BiFunction<T, Marshaller, JsonElement> serializer) {
+        customTypes.add(clazz);
+        return super.registerSerializer(clazz, serializer);
+    }
+
+    @Override
+    public <A, B> Jankson.Builder registerDeserializer(final Class<A> sourceClass, final Class<B> targetClass, final DeserializerFunction<A, B> function) {
+        customTypes.add(targetClass);
+        return super.registerDeserializer(sourceClass, targetClass, function);
+    }
+
+    @Override
+    public <T> Jankson.Builder registerTypeAdapter(final Class<T> clazz, final Function<JsonObject, T> adapter) {
+        customTypes.add(clazz);
+        return super.registerTypeAdapter(clazz, adapter);
+    }
+}
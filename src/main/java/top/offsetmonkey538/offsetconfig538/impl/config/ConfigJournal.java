@@ -0,0 +1,106 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonElement;
+import blue.endless.jankson.JsonGrammar;
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.api.SyntaxError;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.api.config.SaveMode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Reads and writes the append-only change journals of configs.
+ * <p>
+ *     Each record is a single line containing a compact json object with the key and its new value.
+ * </p>
+ *
+ * @see top.offsetmonkey538.offsetconfig538.api.config.Config#getJournalPath()
+ */
+@ApiStatus.Internal
+public final class ConfigJournal {
+    private static final JsonGrammar RECORD_GRAMMAR = JsonGrammar.builder().withComments(false).printWhitespace(false).build();
+
+    private ConfigJournal() {
+
+    }
+
+    /**
+     * Appends a record to the end of the journal, creating it if it doesn't exist.
+     *
+     * @param journalPath the journal file
+     * @param key the key that was changed
+     * @param value the serialized new value of the key
+     * @param saveMode the {@link SaveMode} of the config, the record is forced to disk with {@link SaveMode#ATOMIC_SYNC}
+     * @throws IOException when writing fails.
+     */
+    public static void append(final @NotNull Path journalPath, final @NotNull String key, final @NotNull JsonElement value, final @NotNull SaveMode saveMode) throws IOException {
+        final JsonObject record = new JsonObject();
+        record.put(key, value);
+        final byte[] line = (record.toJson(RECORD_GRAMMAR) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) channel.write(buffer);
+
+            if (saveMode == SaveMode.ATOMIC_SYNC) channel.force(false);
+        }
+    }
+
+    /**
+     * Applies the records of the journal to the provided json, in the order they were appended.
+     * <p>
+     *     A record that can't be parsed, for example one cut off by a crash, ends the replay.
+     * </p>
+     *
+     * @param journalPath the journal file
+     * @param json the json read from the config file, modified in place
+     * @param jankson the {@link Jankson} instance to parse records with
+     * @return the amount of records applied, {@code 0} if the journal doesn't exist.
+     * @throws IOException when reading fails.
+     */
+    public static int replay(final @NotNull Path journalPath, final @NotNull JsonObject json, final @NotNull Jankson jankson) throws IOException {
+        if (!Files.exists(journalPath)) return 0;
+
+        int records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) continue;
+
+                final JsonObject record;
+                try {
+                    record = jankson.load(line);
+                } catch (SyntaxError e) {
+                    break;
+                }
+
+                // Keeps the comment and position of existing entries
+                for (final Map.Entry<String, JsonElement> entry : record.entrySet()) {
+                    json.put(entry.getKey(), entry.getValue());
+                }
+                records++;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Deletes the journal, should be called once the config file contains all of its records.
+     *
+     * @param journalPath the journal file
+     * @throws IOException when deleting fails.
+     */
+    public static void clear(final @NotNull Path journalPath) throws IOException {
+        Files.deleteIfExists(journalPath);
+    }
+}
@@ -5,17 +5,33 @@ import blue.endless.jankson.JsonElement;
 import blue.endless.jankson.JsonObject;
 import blue.endless.jankson.JsonPrimitive;
 import blue.endless.jankson.api.DeserializationException;
+import blue.endless.jankson.api.Marshaller;
 import blue.endless.jankson.api.SyntaxError;
 import org.jetbrains.annotations.*;
 import top.offsetmonkey538.offsetconfig538.api.config.*;
 import top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events;
+import top.offsetmonkey538.offsetconfig538.impl.event.EventImpl;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementation of the {@link ConfigManager}
@@ -25,6 +41,24 @@ public final class ConfigManagerImpl implements ConfigManager {
     private static final String VERSION_KEY = "!!!version";
     private static final String VERSION_COMMENT = "!!!!! DO NOT MODIFY THIS VALUE !!!!";
 
+    /**
+     * How long to wait before starting an asynchronous save, any saves requested during this time are merged into it.
+     */
+    private static final long SAVE_COALESCE_DELAY_MILLIS = 50;
+    /**
+     * Executor running asynchronous saves after {@link #SAVE_COALESCE_DELAY_MILLIS}.
+     */
+    private static final Executor DELAYED_SAVE_EXECUTOR = CompletableFuture.delayedExecutor(SAVE_COALESCE_DELAY_MILLIS, TimeUnit.MILLISECONDS, ConfigExecutors.IO);
+
+    /**
+     * Incremented every time all cached {@link Jankson} instances should be rebuilt.
+     */
+    private final AtomicInteger janksonGeneration = new AtomicInteger();
+    /**
+     * Where to report timings and counters to. Nothing is measured while this is {@link ConfigMetrics#NONE}.
+     */
+    private volatile @NotNull ConfigMetrics metrics = ConfigMetrics.NONE;
+
     /**
      * Constructs the {@link ConfigManager} implementation.
      * <p>
@@ -36,105 +70,1115 @@ public final class ConfigManagerImpl implements ConfigManager {
     }
 
     @Override
-    public @NotNull <T extends Config> ConfigHolder<T> initImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
-        ConfigManager.load(configHolder, errorHandler);
+    public @NotNull <T extends Config> InitResult<T> initImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
+        final ConfigHolderImpl<T> configHolderImpl = (ConfigHolderImpl<T>) configHolder;
+        synchronized (configHolderImpl.ioLock) {
+            final boolean writtenByLoad = load(configHolderImpl, errorHandler);
+            final boolean writtenBySave = save(configHolderImpl, errorHandler, true);
 
-        ConfigManager.save(configHolder, errorHandler);
-        return configHolder;
+            return new InitResult<>(configHolder, writtenByLoad || writtenBySave);
+        }
     }
 
     @Override
-    public <T extends Config> void loadImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
-        configHolder.get().beforeLoadStart();
-        if (!Files.exists(configHolder.get().getFilePath())) return;
+    public @NotNull BulkInitResult initAllImpl(@NotNull Collection<? extends ConfigHolder<?>> configHolders) {
+        final long startTime = System.nanoTime();
+
+        final List<ConfigHolder<?>> holders = List.copyOf(configHolders);
+        final long[] timings = new long[holders.size()];
+        final boolean[] written = new boolean[holders.size()];
+        final Throwable[] failures = new Throwable[holders.size()];
+
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[holders.size()];
+        for (int i = 0; i < holders.size(); i++) {
+            final int index = i;
+            final ConfigHolder<?> holder = holders.get(index);
 
+            futures[index] = CompletableFuture.runAsync(() -> {
+                final long holderStartTime = System.nanoTime();
+                try {
+                    written[index] = ConfigManager.initWithResult(holder).written();
+                } catch (Throwable e) {
+                    holder.getErrorHandler().log("Config '%s' could not be initialized!", e, holder);
+                    failures[index] = e;
+                }
+                timings[index] = System.nanoTime() - holderStartTime;
+            }, ConfigExecutors.IO);
+        }
+        CompletableFuture.allOf(futures).join();
+
+        final Map<ConfigHolder<?>, Duration> timingsMap = new LinkedHashMap<>();
+        final Set<ConfigHolder<?>> writtenSet = new LinkedHashSet<>();
+        final Map<ConfigHolder<?>, Throwable> failuresMap = new LinkedHashMap<>();
+        for (int i = 0; i < holders.size(); i++) {
+            timingsMap.put(holders.get(i), Duration.ofNanos(timings[i]));
+            if (written[i]) writtenSet.add(holders.get(i));
+            if (failures[i] != null) failuresMap.put(holders.get(i), failures[i]);
+        }
 
+        return new BulkInitResult(Duration.ofNanos(System.nanoTime() - startTime), Collections.unmodifiableMap(timingsMap), Collections.unmodifiableSet(writtenSet), Collections.unmodifiableMap(failuresMap));
+    }
+
+    @Override
+    public <T extends Config> void loadImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
         final ConfigHolderImpl<T> configHolderImpl = (ConfigHolderImpl<T>) configHolder;
+        synchronized (configHolderImpl.ioLock) {
+            load(configHolderImpl, errorHandler);
+        }
+    }
+
+    /**
+     * Loads the config of the provided holder, along with its {@link ConfigShard shards}. Must be called while holding {@link ConfigHolderImpl#ioLock}.
+     *
+     * @return whether the config file or any shard file was written because {@link Datafixer}s were applied.
+     */
+    private <T extends Config> boolean load(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull ErrorHandler errorHandler) {
+        final List<Shard> shards = shards(configHolderImpl);
+        // Loaded first, so they're already in the config when it's published
+        final boolean shardsWritten = loadShards(shards, errorHandler);
+
+        final boolean written = loadFile(configHolderImpl, errorHandler);
+        // The config file may not have been loaded, make sure the held config uses the loaded shards anyway. Replaced, as it's already published.
+        if (!hasShards(configHolderImpl.get(), shards)) configHolderImpl.update(config -> withShards(configHolderImpl, config, shards));
+        return written || shardsWritten;
+    }
+
+    /**
+     * Loads the config file of the provided holder. Must be called while holding {@link ConfigHolderImpl#ioLock}.
+     *
+     * @return whether the config file was written because {@link Datafixer}s were applied.
+     */
+    private <T extends Config> boolean loadFile(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull ErrorHandler errorHandler) {
+        configHolderImpl.get().beforeLoadStart();
+        final Path filePath = configHolderImpl.get().getFilePath();
+        if (!Files.exists(filePath)) return false;
+
+
         final Jankson jankson = configureJankson(configHolderImpl);
+        final Path snapshotPath = configHolderImpl.get().getSnapshotPath();
+        final ConfigMetrics metrics = this.metrics;
+        final boolean measure = metrics != ConfigMetrics.NONE;
+        final long startTime = measure ? System.nanoTime() : 0;
 
-        // Load it from disk
-        final JsonObject json;
+        // Load it from disk, hashing it along the way as the file may have been changed since we last wrote it
+        final LoadedJson loaded;
         try {
-            json = jankson.load(Files.newInputStream(configHolderImpl.get().getFilePath()));
+            if (snapshotPath == null) loaded = readFile(configHolderImpl, filePath, jankson, errorHandler);
+            else loaded = readFileOrSnapshot(configHolderImpl, filePath, snapshotPath, jankson, errorHandler);
+
+            if (measure) metrics.onBytesRead(configHolderImpl, loaded.size());
         } catch (IOException e) {
+            configHolderImpl.lastContentHash = null;
+            configHolderImpl.lastJson = null;
             errorHandler.log("Config file '%s' could not be read!", e, configHolderImpl);
-            return;
+            if (measure) metrics.onFailure(configHolderImpl, ConfigMetrics.Phase.PARSE, e);
+            return false;
+        }
+        final JsonObject json = loaded.json();
+        // Also kept when the file is broken, so reloads don't keep trying to parse it until it's changed again
+        configHolderImpl.lastContentHash = loaded.contentHash();
+        configHolderImpl.lastJson = null;
+        if (json == null) return false;
+        if (measure) metrics.onPhase(configHolderImpl, ConfigMetrics.Phase.PARSE, System.nanoTime() - startTime);
+
+        // Whole config was replaced, so it matches the file now
+        configHolderImpl.dirtyKeys.clear();
+
+        // Records were written by the same config version as the file, as loading rewrites outdated files, so they're replayed before datafixing
+        final boolean replayed = replayJournal(configHolderImpl, json, jankson, errorHandler);
+
+        // Snapshots are already datafixed
+        if (loaded.fromSnapshot()) {
+            configHolderImpl.fileRejected = false;
+            deserialize(configHolderImpl, json, jankson, errorHandler);
+            rememberJson(configHolderImpl, withVersion(json, configHolderImpl.get().getConfigVersion()));
+            configHolderImpl.savedGeneration = configHolderImpl.getGeneration();
+            return replayed && saveFile(configHolderImpl, errorHandler, false);
+        }
+
+        // Partially upgrading would stamp the current version on the file and lose the missing upgrades for good, and downgrading would lose unknown entries
+        configHolderImpl.fileRejected = !canDatafix(configHolderImpl, json, errorHandler);
+        if (configHolderImpl.fileRejected) return false;
+
+        final boolean modified = apply(configHolderImpl, json, jankson, errorHandler, true);
+        rememberJson(configHolderImpl, withVersion(json, configHolderImpl.get().getConfigVersion()));
+        configHolderImpl.savedGeneration = configHolderImpl.getGeneration();
+        // Also folds the replayed journal into the file
+        final boolean written = (modified || replayed) && saveFile(configHolderImpl, errorHandler, false);
+
+        if (snapshotPath != null) writeSnapshot(configHolderImpl, snapshotPath, json, errorHandler);
+        return written;
+    }
+
+    /**
+     * Applies the records in the {@link Config#getJournalPath() journal} of the provided holder to the provided json.
+     *
+     * @return whether any records were applied.
+     */
+    private static boolean replayJournal(final @NotNull ConfigHolderImpl<?> configHolder, final @NotNull JsonObject json, final @NotNull Jankson jankson, final @NotNull ErrorHandler errorHandler) {
+        final Path journalPath = configHolder.get().getJournalPath();
+        if (journalPath == null) return false;
+
+        try {
+            return ConfigJournal.replay(journalPath, json, jankson) > 0;
+        } catch (IOException e) {
+            errorHandler.log("Journal of config '%s' could not be read! Changes recorded in it are lost.", e, configHolder);
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the {@link Config#getJournalPath() journal} of the provided holder after the config file was written. Must be called while holding {@link ConfigHolderImpl#ioLock}.
+     */
+    private static void clearJournal(final @NotNull ConfigHolderImpl<?> configHolder, final @NotNull ErrorHandler errorHandler) {
+        final Path journalPath = configHolder.get().getJournalPath();
+        if (journalPath == null) return;
+
+        try {
+            ConfigJournal.clear(journalPath);
+        } catch (IOException e) {
+            errorHandler.log("Journal of config '%s' could not be deleted! Outdated changes will be applied when loading.", e, configHolder);
+        }
+    }
+
+    private @NotNull LoadedJson readFile(final @NotNull ConfigHolderImpl<?> configHolder, final @NotNull Path filePath, final @NotNull Jankson jankson, final @NotNull ErrorHandler errorHandler) throws IOException {
+        final MessageDigest digest = ContentHashes.newDigest();
+        try (InputStream in = new DigestInputStream(new BufferedInputStream(Files.newInputStream(filePath)), digest)) {
+            final JsonObject json = parse(configHolder, jankson, in, errorHandler);
+
+            // Jankson stops reading after the root object, read the rest so the hash covers the whole file
+            in.transferTo(OutputStream.nullOutputStream());
+            return new LoadedJson(json, digest.digest(), Files.size(filePath), false);
+        }
+    }
+
+    private @NotNull LoadedJson readFileOrSnapshot(final @NotNull ConfigHolderImpl<?> configHolder, final @NotNull Path filePath, final @NotNull Path snapshotPath, final @NotNull Jankson jankson, final @NotNull ErrorHandler errorHandler) throws IOException {
+        // Hashing is much cheaper than parsing, and unlike the attributes of the file it notices every change
+        final byte[] contents = Files.readAllBytes(filePath);
+        final byte[] contentHash = ContentHashes.hash(contents);
+        final ConfigSnapshots.Key key = new ConfigSnapshots.Key(contentHash, configHolder.get().getConfigVersion());
+
+        final JsonObject snapshot = ConfigSnapshots.read(snapshotPath, key);
+        if (snapshot != null) return new LoadedJson(snapshot, contentHash, contents.length, true);
+
+        try (InputStream in = new ByteArrayInputStream(contents)) {
+            return new LoadedJson(parse(configHolder, jankson, in, errorHandler), contentHash, contents.length, false);
+        }
+    }
+
+    private static void writeSnapshot(final @NotNull ConfigHolderImpl<?> configHolder, final @NotNull Path snapshotPath, final @NotNull JsonObject json, final @NotNull ErrorHandler errorHandler) {
+        // Datafixers may have caused the file to be rewritten, so the key has to be created from what was written last
+        final byte[] contentHash = configHolder.lastContentHash;
+        if (contentHash == null) return;
+
+        // Version is stamped on the held json, but the snapshot is always of the current version
+        final JsonObject snapshotJson = new JsonObject();
+        for (final Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            if (entry.getKey().equals(VERSION_KEY)) continue;
+
+            final String comment = json.getComment(entry.getKey());
+            if (comment == null) snapshotJson.put(entry.getKey(), entry.getValue());
+            else snapshotJson.put(entry.getKey(), entry.getValue(), comment);
+        }
+
+        try {
+            ConfigSnapshots.write(snapshotPath, new ConfigSnapshots.Key(contentHash, configHolder.get().getConfigVersion()), snapshotJson);
+        } catch (IOException e) {
+            errorHandler.log("Unable to write snapshot of config file '%s'! Continuing anyway, it'll just load slower next time.", e, configHolder);
+        }
+    }
+
+    @Override
+    public <T extends Config> void loadFromImpl(@NotNull ConfigHolder<T> configHolder, @NotNull InputStream in, @NotNull ErrorHandler errorHandler) {
+        final ConfigHolderImpl<T> configHolderImpl = (ConfigHolderImpl<T>) configHolder;
+        synchronized (configHolderImpl.ioLock) {
+            final Jankson jankson = configureJankson(configHolderImpl);
+
+            final JsonObject json;
+            try {
+                json = parse(configHolderImpl, jankson, in, errorHandler);
+            } catch (IOException e) {
+                errorHandler.log("Config '%s' could not be read from the provided stream!", e, configHolderImpl);
+                return;
+            }
+            if (json == null || !canDatafix(configHolderImpl, json, errorHandler)) return;
+
+            apply(configHolderImpl, json, jankson, errorHandler, false);
+            // Doesn't match the file anymore
+            configHolderImpl.lastJson = null;
+        }
+    }
+
+    /**
+     * Parses json from the provided stream. Logs syntax errors.
+     *
+     * @return the parsed json, or {@code null} if it's formatted incorrectly.
+     */
+    private @Nullable JsonObject parse(final @NotNull ConfigHolderImpl<?> configHolder, final @NotNull Jankson jankson, final @NotNull InputStream in, final @NotNull ErrorHandler errorHandler) throws IOException {
+        try {
+            return configHolder.get().getFormat().read(in, jankson);
         } catch (SyntaxError e) {
-            errorHandler.log("Config file '%s' is formatted incorrectly!", configHolderImpl);
+            errorHandler.log("Config file '%s' is formatted incorrectly!", configHolder);
             errorHandler.log(e.getMessage());
             errorHandler.log(e.getLineMessage());
-            return;
+            metrics.onFailure(configHolder, ConfigMetrics.Phase.PARSE, e);
+            return null;
         }
+    }
 
-        final boolean modified = applyDatafixers(configHolderImpl, json, jankson, errorHandler);
+    /**
+     * Datafixes the provided json and sets it as the held config.
+     *
+     * @param createBackup whether to back up the config file before applying datafixers.
+     * @return whether datafixers were applied.
+     */
+    private <T extends Config> boolean apply(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull JsonObject json, final @NotNull Jankson jankson, final @NotNull ErrorHandler errorHandler, final boolean createBackup) {
+        final ConfigMetrics metrics = this.metrics;
+        final boolean measure = metrics != ConfigMetrics.NONE;
+        final long startTime = measure ? System.nanoTime() : 0;
 
-        try {
-            // Remove version first, otherwise 'fromJsonCarefully' will throw because it's not in the config object
-            json.remove(VERSION_KEY);
+        final boolean modified = applyDatafixers(configHolderImpl, json, jankson, errorHandler, createBackup);
+        if (measure && modified) metrics.onPhase(configHolderImpl, ConfigMetrics.Phase.DATAFIX, System.nanoTime() - startTime);
+
+        deserialize(configHolderImpl, json, jankson, errorHandler);
+        return modified;
+    }
+
+    /**
+     * Creates the config object from the provided datafixed json and sets it as the held config.
+     */
+    private <T extends Config> void deserialize(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull JsonObject json, final @NotNull Jankson jankson, final @NotNull ErrorHandler errorHandler) {
+        final ConfigMetrics metrics = this.metrics;
+        final boolean measure = metrics != ConfigMetrics.NONE;
+        final long startTime = measure ? System.nanoTime() : 0;
+
+        // Remove version first, otherwise 'fromJsonCarefully' will throw because it's not in the config object
+        json.remove(VERSION_KEY);
 
-            configHolderImpl.set(jankson.fromJsonCarefully(json, configHolderImpl.configClass));
+        T config = null;
+        try {
+            config = fromJson(configHolderImpl, json, jankson, true);
         } catch (DeserializationException e) {
             errorHandler.log("Failed to create config class '%s' from json!", e, configHolderImpl.configClass.getName());
-            configHolderImpl.set(jankson.fromJson(json, configHolderImpl.configClass));
+            metrics.onFailure(configHolderImpl, ConfigMetrics.Phase.DESERIALIZE, e);
+            try {
+                config = fromJson(configHolderImpl, json, jankson, false);
+            } catch (DeserializationException ignored) {
+                // Not strict, can't be thrown
+            }
         }
+        // Only the values are shared, the config object itself always belongs to this holder
+        if (config != null && configHolderImpl.get().isDeduplicated()) ConfigDeduplication.share(configHolderImpl.configClass, config, json);
+        configHolderImpl.set(config);
+        if (measure) metrics.onPhase(configHolderImpl, ConfigMetrics.Phase.DESERIALIZE, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Creates a config object from the provided json using the {@link #codec(ConfigHolderImpl) codec} of the config class, or Jankson if it doesn't have one.
+     * <p>
+     *     When using the codec, the new config starts out as {@link ConfigHolderImpl#defaultConstructor a default config},
+     *     so values missing from the json keep their defaults.
+     * </p>
+     *
+     * @param strict whether unknown keys and invalid values should throw
+     */
+    private static <T extends Config> @Nullable T fromJson(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull JsonObject json, final @NotNull Jankson jankson, final boolean strict) throws DeserializationException {
+        final ConfigCodec<T> codec = codec(configHolderImpl);
+        if (codec == null) return strict ? jankson.fromJsonCarefully(json, configHolderImpl.configClass) : jankson.fromJson(json, configHolderImpl.configClass);
 
-        if (modified) ConfigManager.save(configHolderImpl);
+        final T config = configHolderImpl.defaultConstructor.get();
+        codec.deserialize(config, json, jankson.getMarshaller(), strict, configHolderImpl.getErrorHandler());
+        injectShards(config, shards(configHolderImpl));
+        return config;
+    }
+
+    /**
+     * Returns the {@link ConfigCodec} of the config class, or {@code null} if it doesn't have one or Jankson was configured with a serializer or deserializer for it.
+     * <p>
+     *     Only accurate after {@link #configureJankson(ConfigHolderImpl)} has been called for the holder.
+     * </p>
+     */
+    private static <T extends Config> @Nullable ConfigCodec<T> codec(final @NotNull ConfigHolderImpl<T> configHolderImpl) {
+        final CachedJankson cached = configHolderImpl.cachedJankson;
+        if (cached != null && cached.customConfigSerialization()) return null;
+
+        return ConfigCodec.of(configHolderImpl.configClass);
+    }
+
+    /**
+     * Converts the provided config to json using the {@link #codec(ConfigHolderImpl) codec} of the config class, or Jankson if it doesn't have one.
+     */
+    private static <T extends Config> @NotNull JsonElement toJson(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull T config, final @NotNull Jankson jankson) {
+        final ConfigCodec<T> codec = codec(configHolderImpl);
+        if (codec == null) return jankson.toJson(config);
+
+        return codec.serialize(config, jankson.getMarshaller());
+    }
+
+    @Override
+    public <T extends Config> boolean reloadImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
+        final ConfigHolderImpl<T> configHolderImpl = (ConfigHolderImpl<T>) configHolder;
+        synchronized (configHolderImpl.ioLock) {
+            boolean changed = isFileChanged(configHolderImpl, errorHandler);
+            for (final Shard shard : shards(configHolderImpl)) {
+                synchronized (shard.holder().ioLock) {
+                    changed |= isFileChanged(shard.holder(), errorHandler);
+                }
+            }
+            if (!changed) return false;
+
+            load(configHolderImpl, errorHandler);
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether the config file of the provided holder has changed since we last read or wrote it. Must be called while holding {@link ConfigHolderImpl#ioLock}.
+     *
+     * @return whether the config file has changed. {@code false} if it doesn't exist or couldn't be read.
+     */
+    private static boolean isFileChanged(final @NotNull ConfigHolderImpl<?> configHolderImpl, final @NotNull ErrorHandler errorHandler) {
+        final Path filePath = configHolderImpl.get().getFilePath();
+        if (!Files.exists(filePath)) return false;
+
+        final MessageDigest digest = ContentHashes.newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(filePath), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            errorHandler.log("Config file '%s' could not be read!", e, configHolderImpl);
+            return false;
+        }
+        // Either we wrote it or it hasn't changed since the last reload
+        return configHolderImpl.lastContentHash == null || !MessageDigest.isEqual(configHolderImpl.lastContentHash, digest.digest());
     }
 
     @Override
     public <T extends Config> void saveImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
         final ConfigHolderImpl<T> configHolderImpl = (ConfigHolderImpl<T>) configHolder;
+        synchronized (configHolderImpl.ioLock) {
+            // Sharded configs only write the files that changed
+            save(configHolderImpl, errorHandler, !shards(configHolderImpl).isEmpty());
+        }
+    }
+
+    /**
+     * Saves the config of the provided holder, along with its {@link ConfigShard shards}. Must be called while holding {@link ConfigHolderImpl#ioLock}.
+     *
+     * @param onlyIfChanged when {@code true}, the config file is only written if its contents would change. Shard files are only written if they've changed either way.
+     * @return whether the config file or any shard file was written.
+     */
+    private <T extends Config> boolean save(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull ErrorHandler errorHandler, final boolean onlyIfChanged) {
+        final boolean written = saveFile(configHolderImpl, errorHandler, onlyIfChanged);
+        return saveShards(configHolderImpl, errorHandler) || written;
+    }
+
+    /**
+     * Saves the config file of the provided holder. Must be called while holding {@link ConfigHolderImpl#ioLock}.
+     *
+     * @param onlyIfChanged when {@code true}, the file is only written if its contents would change.
+     * @return whether the config file was written.
+     */
+    private <T extends Config> boolean saveFile(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull ErrorHandler errorHandler, final boolean onlyIfChanged) {
+        if (isRejectedFile(configHolderImpl, errorHandler)) return false;
+
         final Jankson jankson = configureJankson(configHolderImpl);
+        final ConfigMetrics metrics = this.metrics;
+        final boolean measure = metrics != ConfigMetrics.NONE;
+        long startTime = measure ? System.nanoTime() : 0;
+
+        // Everything is written, but keys marked after this have to be saved next time, so only these are cleared once written
+        final Set<String> savedKeys = Set.copyOf(configHolderImpl.dirtyKeys);
 
         // Convert to json
-        final JsonElement jsonAsElement = jankson.toJson(configHolderImpl.get());
+        final ConfigState<T> state = configHolderImpl.getState();
+        final JsonElement jsonAsElement = toJson(configHolderImpl, state.config(), jankson);
         if (!(jsonAsElement instanceof final JsonObject json)) {
             errorHandler.log("Config '%s' could not be serialized to a 'JsonObject', got '%s' instead! Config will not be saved.", configHolderImpl, jsonAsElement.getClass().getName());
-            return;
+            configHolderImpl.saveFailed = true;
+            metrics.onFailure(configHolderImpl, ConfigMetrics.Phase.SERIALIZE, null);
+            return false;
         }
 
         // Write config version
-        json.put(VERSION_KEY, new JsonPrimitive(configHolderImpl.get().getConfigVersion()), VERSION_COMMENT);
+        withVersion(json, state.config().getConfigVersion());
+        if (measure) {
+            metrics.onPhase(configHolderImpl, ConfigMetrics.Phase.SERIALIZE, System.nanoTime() - startTime);
+            startTime = System.nanoTime();
+        }
 
-        // Convert to string
-        final String result = json.toJson(true, true);
+        final Path filePath = configHolderImpl.get().getFilePath();
+        final SaveMode saveMode = configHolderImpl.get().getSaveMode();
+        final ConfigFormat format = configHolderImpl.get().getFormat();
 
         // Save
         try {
-            Files.createDirectories(configHolderImpl.get().getFilePath().getParent());
-            Files.writeString(configHolderImpl.get().getFilePath(), result);
+            if (!onlyIfChanged) {
+                // Stream straight to disk
+                configHolderImpl.lastContentHash = ConfigFiles.write(filePath, saveMode, out -> format.write(json, out));
+                rememberJson(configHolderImpl, json);
+                configHolderImpl.dirtyKeys.removeAll(savedKeys);
+                configHolderImpl.savedGeneration = state.generation();
+                configHolderImpl.saveFailed = false;
+                clearJournal(configHolderImpl, errorHandler);
+                if (measure) {
+                    metrics.onPhase(configHolderImpl, ConfigMetrics.Phase.WRITE, System.nanoTime() - startTime);
+                    metrics.onBytesWritten(configHolderImpl, Files.size(filePath));
+                }
+                return true;
+            }
+
+            // Has to be compared against the file first, so convert to bytes
+            final ByteArrayOutputStream resultStream = new ByteArrayOutputStream();
+            format.write(json, resultStream);
+            final byte[] result = resultStream.toByteArray();
+            final byte[] resultHash = ContentHashes.hash(result);
+
+            if (isUpToDate(filePath, result, resultHash, configHolderImpl.lastContentHash)) {
+                configHolderImpl.lastContentHash = resultHash;
+                rememberJson(configHolderImpl, json);
+                configHolderImpl.dirtyKeys.removeAll(savedKeys);
+                configHolderImpl.savedGeneration = state.generation();
+                configHolderImpl.saveFailed = false;
+                clearJournal(configHolderImpl, errorHandler);
+                return false;
+            }
+
+            configHolderImpl.lastContentHash = ConfigFiles.write(filePath, saveMode, out -> out.write(result));
+            rememberJson(configHolderImpl, json);
+            configHolderImpl.dirtyKeys.removeAll(savedKeys);
+            configHolderImpl.savedGeneration = state.generation();
+            configHolderImpl.saveFailed = false;
+            clearJournal(configHolderImpl, errorHandler);
+            if (measure) {
+                metrics.onPhase(configHolderImpl, ConfigMetrics.Phase.WRITE, System.nanoTime() - startTime);
+                metrics.onBytesWritten(configHolderImpl, result.length);
+            }
+            return true;
+        } catch (IOException e) {
+            configHolderImpl.lastContentHash = null;
+            configHolderImpl.lastJson = null;
+            errorHandler.log("Config file '%s' could not be saved!", e, configHolderImpl);
+            configHolderImpl.saveFailed = true;
+            metrics.onFailure(configHolderImpl, ConfigMetrics.Phase.WRITE, e);
+            return false;
+        }
+    }
+
+    @Override
+    public <T extends Config> void savePartialImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
+        final ConfigHolderImpl<T> configHolderImpl = (ConfigHolderImpl<T>) configHolder;
+        synchronized (configHolderImpl.ioLock) {
+            configHolderImpl.partialSaves = true;
+            savePartialFile(configHolderImpl, errorHandler);
+            saveShards(configHolderImpl, errorHandler);
+        }
+    }
+
+    /**
+     * Saves the changed entries of the config file of the provided holder. Must be called while holding {@link ConfigHolderImpl#ioLock}.
+     */
+    private <T extends Config> void savePartialFile(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull ErrorHandler errorHandler) {
+        if (isRejectedFile(configHolderImpl, errorHandler)) return;
+
+        final Path filePath = configHolderImpl.get().getFilePath();
+        final Jankson jankson = configureJankson(configHolderImpl);
+        final ConfigCodec<T> codec = codec(configHolderImpl);
+
+        // Nothing to patch, or the journal may contain changes of entries that aren't patched
+        final Path journalPath = configHolderImpl.get().getJournalPath();
+        final JsonObject json = codec == null || !Files.exists(filePath) || (journalPath != null && Files.exists(journalPath)) ? null : partialSaveBase(configHolderImpl, filePath, jankson, errorHandler);
+        if (json == null) {
+            saveFile(configHolderImpl, errorHandler, false);
+            return;
+        }
+
+        final Marshaller marshaller = jankson.getMarshaller();
+        final ConfigState<T> state = configHolderImpl.getState();
+        final T config = state.config();
+        final ConfigMetrics metrics = this.metrics;
+        final boolean measure = metrics != ConfigMetrics.NONE;
+        long startTime = measure ? System.nanoTime() : 0;
+
+        // Only cleared once written, so the keys are saved again if writing fails or they're marked during this save
+        final Set<String> savedKeys = Set.copyOf(configHolderImpl.dirtyKeys);
+        boolean changed = false;
+        if (savedKeys.isEmpty()) {
+            for (final ConfigCodec.FieldCodec field : codec.getFields()) {
+                changed |= patch(json, field, config, marshaller);
+            }
+        } else {
+            for (final String key : savedKeys) {
+                final ConfigCodec.FieldCodec field = codec.getField(key);
+                if (field == null) {
+                    errorHandler.log("Key '%s' marked as changed doesn't exist in config '%s'!", key, configHolderImpl);
+                    continue;
+                }
+                changed |= patch(json, field, config, marshaller);
+            }
+        }
+
+        if (json.getInt(VERSION_KEY, -1) != config.getConfigVersion()) {
+            withVersion(json, config.getConfigVersion());
+            changed = true;
+        }
+        if (measure) {
+            metrics.onPhase(configHolderImpl, ConfigMetrics.Phase.SERIALIZE, System.nanoTime() - startTime);
+            startTime = System.nanoTime();
+        }
+        if (!changed) {
+            rememberJson(configHolderImpl, json);
+            configHolderImpl.dirtyKeys.removeAll(savedKeys);
+            configHolderImpl.savedGeneration = state.generation();
+            configHolderImpl.saveFailed = false;
+            return;
+        }
+
+        try {
+            configHolderImpl.lastContentHash = ConfigFiles.write(filePath, config.getSaveMode(), out -> config.getFormat().write(json, out));
+            rememberJson(configHolderImpl, json);
+            configHolderImpl.dirtyKeys.removeAll(savedKeys);
+            configHolderImpl.savedGeneration = state.generation();
+            configHolderImpl.saveFailed = false;
+            if (measure) {
+                metrics.onPhase(configHolderImpl, ConfigMetrics.Phase.WRITE, System.nanoTime() - startTime);
+                metrics.onBytesWritten(configHolderImpl, Files.size(filePath));
+            }
         } catch (IOException e) {
+            configHolderImpl.lastContentHash = null;
+            configHolderImpl.lastJson = null;
             errorHandler.log("Config file '%s' could not be saved!", e, configHolderImpl);
+            configHolderImpl.saveFailed = true;
+            metrics.onFailure(configHolderImpl, ConfigMetrics.Phase.WRITE, e);
+        }
+    }
+
+    /**
+     * Returns the json to patch in a partial save. Only kept after the first partial save, before that the config file is read again,
+     * but only if it hasn't changed since it was last loaded or saved.
+     *
+     * @return the json to patch, or {@code null} if the config file has to be saved fully.
+     */
+    private <T extends Config> @Nullable JsonObject partialSaveBase(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull Path filePath, final @NotNull Jankson jankson, final @NotNull ErrorHandler errorHandler) {
+        if (configHolderImpl.lastJson != null) return configHolderImpl.lastJson;
+
+        final byte[] lastContentHash = configHolderImpl.lastContentHash;
+        if (lastContentHash == null) return null;
+
+        try {
+            final LoadedJson loaded = readFile(configHolderImpl, filePath, jankson, errorHandler);
+            return MessageDigest.isEqual(lastContentHash, loaded.contentHash()) ? loaded.json() : null;
+        } catch (IOException e) {
+            // Saving it fully reports the error if the file is really broken
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the value of the provided field in the json if it has changed. Keeps the comment and position of existing entries.
+     *
+     * @return whether the json was changed.
+     */
+    private static boolean patch(final @NotNull JsonObject json, final @NotNull ConfigCodec.FieldCodec field, final @NotNull Object config, final @NotNull Marshaller marshaller) {
+        final JsonElement newValue = field.serialize(config, marshaller);
+        final JsonElement oldValue = json.get(field.getName());
+        if (newValue.equals(oldValue)) return false;
+
+        if (oldValue == null && field.getComment() != null) json.put(field.getName(), newValue, field.getComment());
+        else json.put(field.getName(), newValue);
+        return true;
+    }
+
+    /**
+     * Keeps the provided json as the base for partial saves if the holder is {@link ConfigHolderImpl#partialSaves partially saved}.
+     */
+    private static void rememberJson(final @NotNull ConfigHolderImpl<?> configHolderImpl, final @NotNull JsonObject json) {
+        configHolderImpl.lastJson = configHolderImpl.partialSaves ? json : null;
+    }
+
+    @Contract("_, _ -> param1")
+    private static @NotNull JsonObject withVersion(final @NotNull JsonObject json, final int configVersion) {
+        json.put(VERSION_KEY, new JsonPrimitive(configVersion), VERSION_COMMENT);
+        return json;
+    }
+
+    private static boolean isUpToDate(final @NotNull Path filePath, final byte @NotNull [] contents, final byte @NotNull [] contentsHash, final byte @Nullable [] lastContentHash) throws IOException {
+        if (!Files.exists(filePath) || Files.size(filePath) != contents.length) return false;
+        // Compare against what we last wrote first, so the file doesn't have to be read
+        if (lastContentHash != null && MessageDigest.isEqual(lastContentHash, contentsHash)) return true;
+
+        return Arrays.equals(Files.readAllBytes(filePath), contents);
+    }
+
+    @Override
+    public <T extends Config> @NotNull CompletableFuture<Void> saveAsyncImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
+        final ConfigHolderImpl<T> configHolderImpl = (ConfigHolderImpl<T>) configHolder;
+
+        while (true) {
+            final CompletableFuture<Void> pendingSave = configHolderImpl.pendingSave.get();
+            if (pendingSave != null) return pendingSave;
+
+            final CompletableFuture<Void> newSave = new CompletableFuture<>();
+            if (!configHolderImpl.pendingSave.compareAndSet(null, newSave)) continue;
+
+            try {
+                DELAYED_SAVE_EXECUTOR.execute(() -> {
+                    // Clear before saving, so changes made during the save schedule a new one
+                    configHolderImpl.pendingSave.compareAndSet(newSave, null);
+
+                    try {
+                        final boolean failed;
+                        // Read under the lock, so another save can't overwrite the result in between
+                        synchronized (configHolderImpl.ioLock) {
+                            ConfigManager.save(configHolderImpl, errorHandler);
+                            failed = configHolderImpl.saveFailed;
+                        }
+
+                        // Already logged by the save
+                        if (failed) newSave.completeExceptionally(new IOException("Config file '%s' could not be saved!".formatted(configHolderImpl)));
+                        else newSave.complete(null);
+                    } catch (Throwable e) {
+                        errorHandler.log("Config file '%s' could not be saved asynchronously!", e, configHolderImpl);
+                        newSave.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                configHolderImpl.pendingSave.compareAndSet(newSave, null);
+                newSave.completeExceptionally(e);
+            }
+            return newSave;
+        }
+    }
+
+    @Override
+    public <T extends Config> void journalImpl(@NotNull ConfigHolder<T> configHolder, @NotNull String key, @NotNull ErrorHandler errorHandler) {
+        final ConfigHolderImpl<T> configHolderImpl = (ConfigHolderImpl<T>) configHolder;
+        final Path journalPath = configHolderImpl.get().getJournalPath();
+        if (journalPath == null) {
+            saveAsyncImpl(configHolderImpl, errorHandler);
+            return;
+        }
+
+        // Appending while the file is written could lose the record when the journal is deleted afterwards
+        synchronized (configHolderImpl.ioLock) {
+            final Jankson jankson = configureJankson(configHolderImpl);
+            final T config = configHolderImpl.get();
+            final ConfigCodec<T> codec = codec(configHolderImpl);
+            if (codec == null) {
+                // Would have to serialize the whole config to get a single entry
+                errorHandler.log("Config '%s' can't be journaled as its entries can't be serialized separately! Saving the whole config instead.", configHolderImpl);
+                saveAsyncImpl(configHolderImpl, errorHandler);
+                return;
+            }
+
+            final ConfigCodec.FieldCodec field = codec.getField(key);
+            if (field == null) {
+                errorHandler.log("Key '%s' recorded in the journal doesn't exist in config '%s'!", key, configHolderImpl);
+                return;
+            }
+            final JsonElement value = field.serialize(config, jankson.getMarshaller());
+
+            try {
+                ConfigJournal.append(journalPath, key, value, config.getSaveMode());
+            } catch (IOException e) {
+                errorHandler.log("Change of key '%s' could not be recorded in the journal of config '%s'! Saving the whole config instead.", e, key, configHolderImpl);
+                saveAsyncImpl(configHolderImpl, errorHandler);
+                return;
+            }
+        }
+
+        scheduleCompaction(configHolderImpl, errorHandler);
+    }
+
+    /**
+     * Schedules a full save of the provided holder, folding its journal into the config file, unless one is already scheduled.
+     */
+    private <T extends Config> void scheduleCompaction(final @NotNull ConfigHolderImpl<T> configHolderImpl, final @NotNull ErrorHandler errorHandler) {
+        if (configHolderImpl.pendingCompaction.get() != null) return;
+
+        final CompletableFuture<Void> compaction = new CompletableFuture<>();
+        if (!configHolderImpl.pendingCompaction.compareAndSet(null, compaction)) return;
+
+        final long delayMillis = configHolderImpl.get().getJournalCompactionDelay().toMillis();
+        try {
+            CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, ConfigExecutors.IO).execute(() -> {
+                // Clear before saving, so records appended during the save schedule a new one
+                configHolderImpl.pendingCompaction.compareAndSet(compaction, null);
+
+                try {
+                    synchronized (configHolderImpl.ioLock) {
+                        save(configHolderImpl, errorHandler, true);
+                    }
+                    compaction.complete(null);
+                } catch (Throwable e) {
+                    errorHandler.log("Journal of config '%s' could not be folded into the config file!", e, configHolderImpl);
+                    compaction.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            configHolderImpl.pendingCompaction.compareAndSet(compaction, null);
+            compaction.completeExceptionally(e);
         }
     }
 
+    @Override
+    public void setMetricsImpl(@NotNull ConfigMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public @NotNull ConfigMetrics getMetricsImpl() {
+        return metrics;
+    }
+
+    @Override
+    public void invalidateJanksonCachesImpl() {
+        janksonGeneration.incrementAndGet();
+    }
+
+    @Override
+    public <T extends Config> void invalidateJanksonCacheImpl(@NotNull ConfigHolder<T> configHolder) {
+        ((ConfigHolderImpl<T>) configHolder).cachedJankson = null;
+    }
+
     @Contract
-    private <T extends Config> boolean applyDatafixers(final @NotNull ConfigHolderImpl<T> configHolder, final @NotNull JsonObject json, final @NotNull Jankson jankson, @NotNull ErrorHandler errorHandler) {
+    private <T extends Config> boolean applyDatafixers(final @NotNull ConfigHolderImpl<T> configHolder, final @NotNull JsonObject json, final @NotNull Jankson jankson, @NotNull ErrorHandler errorHandler, final boolean createBackup) {
         final int loadedVersion = json.getInt(VERSION_KEY, 0);
         final int currentVersion = configHolder.get().getConfigVersion();
 
-        if (loadedVersion == currentVersion) return false;
-        if (loadedVersion > currentVersion) errorHandler.log("Config file '%s' is for a newer version! Expected config version to be '%s', got '%s'! (Do you have an older version or are you just messing with the value that literally says to not modify it?)", configHolder, currentVersion, loadedVersion);
+        // Newer files are rejected by canDatafix before getting here
+        if (loadedVersion >= currentVersion) return false;
+
+        if (createBackup) backup(configHolder, configHolder.get().getFilePath(), errorHandler);
+
+        final ConfigMetrics metrics = this.metrics;
+        DatafixerPipeline.of(configHolder.get()).apply(json, jankson, loadedVersion, (fromVersion, toVersion) -> metrics.onDatafixerApplied(configHolder, fromVersion, toVersion));
+        return true;
+    }
+
+    /**
+     * Checks whether the config file of the provided holder was {@link ConfigHolderImpl#fileRejected rejected} when loading and still exists. Logs when it was.
+     *
+     * @return whether the config file must not be written.
+     */
+    private static boolean isRejectedFile(final @NotNull ConfigHolderImpl<?> configHolder, final @NotNull ErrorHandler errorHandler) {
+        if (!configHolder.fileRejected || !Files.exists(configHolder.get().getFilePath())) return false;
+
+        errorHandler.log("Config file '%s' wasn't loaded because of its config version, so it won't be overwritten! Move it away to save the config.", configHolder);
+        configHolder.saveFailed = true;
+        return true;
+    }
+
+    /**
+     * Checks whether the provided json can be upgraded all the way to the current config version. Logs when it can't.
+     * <p>
+     *     Json of a newer config version can't be loaded either, as it may contain entries this version doesn't know about.
+     * </p>
+     *
+     * @return whether the provided json can be upgraded to the current config version.
+     */
+    private static boolean canDatafix(final @NotNull ConfigHolderImpl<?> configHolder, final @NotNull JsonObject json, final @NotNull ErrorHandler errorHandler) {
+        final int loadedVersion = json.getInt(VERSION_KEY, 0);
+        final int currentVersion = configHolder.get().getConfigVersion();
+        if (loadedVersion > currentVersion) {
+            errorHandler.log("Config '%s' is for a newer version! Expected config version to be '%s', got '%s'! The config file won't be loaded or modified. (Do you have an older version or are you just messing with the value that literally says to not modify it?)", configHolder, currentVersion, loadedVersion);
+            return false;
+        }
+        if (loadedVersion == currentVersion) return true;
+
+        final int reachableVersion = DatafixerPipeline.of(configHolder.get()).getReachableVersion(loadedVersion);
+        if (reachableVersion >= currentVersion) return true;
+
+        errorHandler.log("Config '%s' is missing a datafixer for upgrading from version '%s'! The config file won't be loaded or modified.", configHolder, reachableVersion);
+        return false;
+    }
+
+    private static void backup(final @NotNull ConfigHolderImpl<?> configHolder, final @NotNull Path filePath, final @NotNull ErrorHandler errorHandler) {
+        final Path backupPath = switch (configHolder.get().getBackupPolicy()) {
+            case KEEP -> filePath.resolveSibling("backup-%s-%s".formatted(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy_MM_dd-HH_mm_ss")), filePath.getFileName()));
+            case KEEP_LATEST -> filePath.resolveSibling("backup-%s".formatted(filePath.getFileName()));
+            case SKIP -> null;
+        };
+        if (backupPath == null) return;
 
-        final Path backupPath = configHolder.get().getFilePath().resolveSibling("backup-%s-%s".formatted(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy_MM_dd-HH_mm_ss")), configHolder.get().getFilePath().getFileName()));
         try {
-            Files.copy(configHolder.get().getFilePath(), backupPath);
+            Files.copy(filePath, backupPath, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
             errorHandler.log("Unable to create backup of config file '%s'! Continuing anyway cause I don't care 'bout your config.", e, configHolder);
         }
+    }
+
+    @Override
+    public <T extends Config> @Nullable DatafixReport dryRunDatafixersImpl(@NotNull ConfigHolder<T> configHolder, @NotNull ErrorHandler errorHandler) {
+        final ConfigHolderImpl<T> configHolderImpl = (ConfigHolderImpl<T>) configHolder;
+
+        // Jankson is configured from the holder's config, which loads replace, so the whole dry run happens under the lock like a real load
+        synchronized (configHolderImpl.ioLock) {
+            final Path filePath = configHolderImpl.get().getFilePath();
+            if (!Files.exists(filePath)) return null;
+
+            final Jankson jankson = configureJankson(configHolderImpl);
+            final JsonObject json;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(filePath))) {
+                json = parse(configHolderImpl, jankson, in, errorHandler);
+            } catch (IOException e) {
+                errorHandler.log("Config file '%s' could not be read!", e, configHolderImpl);
+                return null;
+            }
+            if (json == null) return null;
 
-        for (Datafixer datafixer : Arrays.copyOfRange(configHolder.get().getDatafixers(), loadedVersion, currentVersion)) {
-            datafixer.apply(json, jankson);
+            return dryRunDatafixers(configHolderImpl.get(), json, jankson);
         }
-        return true;
     }
 
-    private @NotNull Jankson configureJankson(final @NotNull ConfigHolder<?> configHolder) {
-        final Jankson.Builder builder = Jankson.builder();
+    /**
+     * Applies the datafixers of the provided config to a copy of the provided json and reports what changed.
+     */
+    private static @NotNull DatafixReport dryRunDatafixers(final @NotNull Config config, final @NotNull JsonObject json, final @NotNull Jankson jankson) {
+        return datafix(config, json, json.clone(), jankson);
+    }
+
+    /**
+     * Applies the datafixers of the provided config to {@code fixedJson} and reports how it differs from {@code json} afterwards.
+     *
+     * @param json the original json, not modified
+     * @param fixedJson a copy of the original json to datafix
+     */
+    private static @NotNull DatafixReport datafix(final @NotNull Config config, final @NotNull JsonObject json, final @NotNull JsonObject fixedJson, final @NotNull Jankson jankson) {
+        final int loadedVersion = json.getInt(VERSION_KEY, 0);
+
+        final List<String> steps = new ArrayList<>();
+        final int reachedVersion = DatafixerPipeline.of(config).apply(fixedJson, jankson, loadedVersion, (fromVersion, toVersion) -> steps.add(fromVersion + " -> " + toVersion));
+
+        final Set<String> addedKeys = new LinkedHashSet<>();
+        final Set<String> removedKeys = new LinkedHashSet<>();
+        final Set<String> changedKeys = new LinkedHashSet<>();
+        for (final Map.Entry<String, JsonElement> entry : fixedJson.entrySet()) {
+            if (entry.getKey().equals(VERSION_KEY)) continue;
+
+            final JsonElement oldValue = json.get(entry.getKey());
+            if (oldValue == null) addedKeys.add(entry.getKey());
+            else if (!oldValue.equals(entry.getValue())) changedKeys.add(entry.getKey());
+        }
+        for (final String key : json.keySet()) {
+            if (!key.equals(VERSION_KEY) && !fixedJson.containsKey(key)) removedKeys.add(key);
+        }
+
+        return new DatafixReport(loadedVersion, Math.max(reachedVersion, loadedVersion), List.copyOf(steps), Collections.unmodifiableSet(addedKeys), Collections.unmodifiableSet(removedKeys), Collections.unmodifiableSet(changedKeys));
+    }
+
+    /**
+     * Datafixes the provided config file in place, without deserializing it, so unknown entries and comments are kept.
+     * <p>
+     *     Used by {@link ConfigMigratorImpl}. Not thread safe for the same holder, as its {@link Jankson} instance isn't.
+     * </p>
+     *
+     * @param configHolder holder of the config type the file belongs to. Its own config file isn't touched.
+     * @param filePath the config file to migrate
+     * @param dryRun when {@code true}, the file isn't written.
+     * @return what was changed, or {@code null} if the file was already up to date.
+     * @throws IOException when the file couldn't be read or written.
+     * @throws SyntaxError when the file is formatted incorrectly.
+     * @throws IllegalStateException when the file is for a newer version or a datafixer is missing.
+     */
+    <T extends Config> @Nullable DatafixReport migrateFile(final @NotNull ConfigHolderImpl<T> configHolder, final @NotNull Path filePath, final boolean dryRun, final @NotNull ErrorHandler errorHandler) throws IOException, SyntaxError {
+        final Jankson jankson = configureJankson(configHolder);
+        final T config = configHolder.get();
+
+        final JsonObject json;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(filePath))) {
+            json = config.getFormat().read(in, jankson);
+        }
+
+        final int loadedVersion = json.getInt(VERSION_KEY, 0);
+        if (loadedVersion == config.getConfigVersion()) return null;
+        if (loadedVersion > config.getConfigVersion()) throw new IllegalStateException("Config file is for a newer version! Expected config version to be '%s', got '%s'!".formatted(config.getConfigVersion(), loadedVersion));
+
+        final JsonObject fixedJson = json.clone();
+        final DatafixReport report = datafix(config, json, fixedJson, jankson);
+        // Don't write half upgraded files
+        if (report.toVersion() < config.getConfigVersion()) throw new IllegalStateException("Missing a datafixer for upgrading from version '%s'!".formatted(report.toVersion()));
+        if (dryRun) return report;
+
+        backup(configHolder, filePath, errorHandler);
+        withVersion(fixedJson, config.getConfigVersion());
+        ConfigFiles.write(filePath, config.getSaveMode(), out -> config.getFormat().write(fixedJson, out));
+        return report;
+    }
+
+    /**
+     * Returns the {@link Jankson} instance for the provided holder, building it if the cached one is outdated. Must be called while holding {@link ConfigHolderImpl#ioLock}.
+     */
+    @NotNull Jankson configureJankson(final @NotNull ConfigHolderImpl<?> configHolder) {
+        final int listenerCount = ((EventImpl<?>) OffsetConfig538Events.JANKSON_CONFIGURATION_EVENT).getListenerCount();
+        final int generation = janksonGeneration.get();
+
+        final CachedJankson cached = configHolder.cachedJankson;
+        if (cached != null && cached.listenerCount() == listenerCount && cached.generation() == generation) return cached.jankson();
+
+        final ConfigJanksonBuilder builder = new ConfigJanksonBuilder();
 
         OffsetConfig538Events.JANKSON_CONFIGURATION_EVENT.getInvoker().configureBuilder(builder);
         configHolder.get().configureJankson(builder);
 
-        return builder.build();
+        final Jankson jankson = builder.build();
+        configHolder.cachedJankson = new CachedJankson(jankson, listenerCount, generation, builder.isCustom(configHolder.configClass));
+        return jankson;
+    }
+
+    /**
+     * Returns the {@link ConfigShard shards} of the provided holder, creating their holders if needed. Must be called while holding {@link ConfigHolderImpl#ioLock}.
+     */
+    private static <T extends Config> @NotNull List<Shard> shards(final @NotNull ConfigHolderImpl<T> configHolder) {
+        final List<Shard> existingShards = configHolder.shards;
+        if (existingShards != null) return existingShards;
+
+        final ConfigCodec<T> codec = ConfigCodec.of(configHolder.configClass);
+        final List<Shard> shards = new ArrayList<>();
+        if (codec != null && !codec.getShards().isEmpty()) {
+            final T defaultConfig = configHolder.defaultConstructor.get();
+            for (final ConfigCodec.FieldCodec field : codec.getShards()) {
+                if (field.get(defaultConfig) == null) {
+                    configHolder.getErrorHandler().log("Shard '%s' of config '%s' is null in the default config! It will not be stored.", field.getName(), configHolder);
+                    continue;
+                }
+
+                shards.add(new Shard(field, new ConfigHolderImpl<>(() -> (Config) field.get(configHolder.defaultConstructor.get()), configHolder.getErrorHandler())));
+            }
+        }
+
+        configHolder.shards = List.copyOf(shards);
+        return configHolder.shards;
+    }
+
+    /**
+     * Loads the provided shards in parallel.
+     *
+     * @return whether any shard file was written because {@link Datafixer}s were applied.
+     */
+    private boolean loadShards(final @NotNull List<Shard> shards, final @NotNull ErrorHandler errorHandler) {
+        if (shards.isEmpty()) return false;
+
+        final List<CompletableFuture<Boolean>> loads = new ArrayList<>(shards.size());
+        for (final Shard shard : shards) {
+            loads.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    synchronized (shard.holder().ioLock) {
+                        return load(shard.holder(), errorHandler);
+                    }
+                } catch (Throwable e) {
+                    errorHandler.log("Shard '%s' could not be loaded!", e, shard.holder());
+                    return false;
+                }
+            }, ConfigExecutors.IO));
+        }
+
+        boolean written = false;
+        for (final CompletableFuture<Boolean> load : loads) {
+            written |= load.join();
+        }
+        return written;
+    }
+
+    /**
+     * Saves the shards of the provided holder in parallel. Shard files are only written if their contents have changed.
+     *
+     * @return whether any shard file was written.
+     */
+    private <T extends Config> boolean saveShards(final @NotNull ConfigHolderImpl<T> configHolder, final @NotNull ErrorHandler errorHandler) {
+        final List<Shard> shards = shards(configHolder);
+        if (shards.isEmpty()) return false;
+
+        final T config = configHolder.get();
+        final List<CompletableFuture<Boolean>> saves = new ArrayList<>(shards.size());
+        for (final Shard shard : shards) {
+            // The shard may have been replaced in the config
+            shard.holder().set((Config) shard.field().get(config));
+
+            saves.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    synchronized (shard.holder().ioLock) {
+                        return save(shard.holder(), errorHandler, true);
+                    }
+                } catch (Throwable e) {
+                    errorHandler.log("Shard '%s' could not be saved!", e, shard.holder());
+                    return false;
+                }
+            }, ConfigExecutors.IO));
+        }
+
+        boolean written = false;
+        for (final CompletableFuture<Boolean> save : saves) {
+            written |= save.join();
+        }
+        return written;
+    }
+
+    /**
+     * Sets the shard fields of the provided config to the configs held by the shard holders.
+     */
+    private static void injectShards(final @NotNull Config config, final @NotNull List<Shard> shards) {
+        for (final Shard shard : shards) {
+            shard.field().set(config, shard.holder().get());
+        }
+    }
+
+    /**
+     * Returns whether the shard fields of the provided config are the configs held by the shard holders.
+     */
+    private static boolean hasShards(final @NotNull Config config, final @NotNull List<Shard> shards) {
+        for (final Shard shard : shards) {
+            if (shard.field().get(config) != shard.holder().get()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates a copy of the provided config with its shard fields set to the configs held by the shard holders.
+     */
+    private static <T extends Config> @NotNull T withShards(final @NotNull ConfigHolderImpl<T> configHolder, final @NotNull T config, final @NotNull List<Shard> shards) {
+        final ConfigCodec<T> codec = ConfigCodec.of(configHolder.configClass);
+        // Only configs with a codec can have shards
+        if (codec == null) return config;
+
+        final T copy = configHolder.defaultConstructor.get();
+        for (final ConfigCodec.FieldCodec field : codec.getFields()) {
+            field.set(copy, field.get(config));
+        }
+        injectShards(copy, shards);
+        return copy;
+    }
+
+    /**
+     * A {@link ConfigShard} of a config.
+     *
+     * @param field the field holding the shard in the config
+     * @param holder the holder used for loading and saving the shard
+     */
+    record Shard(@NotNull ConfigCodec.FieldCodec field, @NotNull ConfigHolderImpl<Config> holder) {
+
+    }
+
+    /**
+     * A {@link Jankson} instance built for a {@link ConfigHolder} along with the state it was built in.
+     *
+     * @param jankson the built {@link Jankson} instance
+     * @param listenerCount the amount of {@link OffsetConfig538Events#JANKSON_CONFIGURATION_EVENT} listeners when it was built
+     * @param generation the value of {@link #janksonGeneration} when it was built
+     * @param customConfigSerialization whether a serializer or deserializer was registered for the config class itself
+     */
+    record CachedJankson(@NotNull Jankson jankson, int listenerCount, int generation, boolean customConfigSerialization) {
+
+    }
+
+    /**
+     * Json read from a config file or its snapshot.
+     *
+     * @param json the read json, or {@code null} if the file was formatted incorrectly
+     * @param contentHash the {@link ContentHashes hash} of the config file
+     * @param size the size of the config file in bytes
+     * @param fromSnapshot whether the json was read from a snapshot, meaning it's already datafixed
+     */
+    private record LoadedJson(@Nullable JsonObject json, byte @NotNull [] contentHash, long size, boolean fromSnapshot) {
+
     }
 }
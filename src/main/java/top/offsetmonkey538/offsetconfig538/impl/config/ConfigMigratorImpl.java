@@ -0,0 +1,130 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link ConfigMigrator}
+ */
+@ApiStatus.Internal
+public final class ConfigMigratorImpl implements ConfigMigrator {
+    private static final int NO_TYPE = -1;
+    private static final int AMBIGUOUS_TYPE = -2;
+
+    @Override
+    public @NotNull MigrationReport migrateImpl(@NotNull Path rootDirectory, @NotNull Collection<? extends Supplier<? extends Config>> configTypes, boolean dryRun, int parallelism, @NotNull ErrorHandler errorHandler) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1, got '%s'!".formatted(parallelism));
+        final long startTime = System.nanoTime();
+
+        final List<Supplier<? extends Config>> types = List.copyOf(configTypes);
+        final Map<String, List<Integer>> typesByFileName = new HashMap<>();
+        final List<Path> typePaths = new ArrayList<>(types.size());
+        for (int i = 0; i < types.size(); i++) {
+            final Config config = types.get(i).get();
+            final Path filePath = config.getFilePath();
+            // Relative, unlike the file path, so it can be matched against the end of paths in the directory
+            typePaths.add(Path.of(config.getId() + config.getFileExtension()));
+            typesByFileName.computeIfAbsent(filePath.getFileName().toString(), fileName -> new ArrayList<>()).add(i);
+        }
+
+        final Map<Path, DatafixReport> upgraded = new ConcurrentHashMap<>();
+        final Set<Path> skipped = ConcurrentHashMap.newKeySet();
+        final Map<Path, Throwable> failures = new ConcurrentHashMap<>();
+
+        // Jankson instances can't be shared between threads, so each thread gets its own holders
+        final ThreadLocal<ConfigHolderImpl<?>[]> holders = ThreadLocal.withInitial(() -> new ConfigHolderImpl<?>[types.size()]);
+        final ConfigManagerImpl configManager = (ConfigManagerImpl) ConfigManager.INSTANCE;
+
+        // Limits the amount of queued files, so the whole tree is never in memory at once
+        final Semaphore permits = new Semaphore(parallelism);
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, ConfigExecutors.daemonThreadFactory("OffsetConfig538 Migrator"));
+        try (Stream<Path> files = Files.walk(rootDirectory)) {
+            final Iterator<Path> iterator = files.iterator();
+            while (iterator.hasNext()) {
+                final Path file = iterator.next();
+                final int typeIndex = findType(rootDirectory, file, typesByFileName, typePaths);
+                if (typeIndex == NO_TYPE || !Files.isRegularFile(file)) continue;
+                if (typeIndex == AMBIGUOUS_TYPE) {
+                    final IllegalStateException e = new IllegalStateException("Config file '%s' matches multiple config types, leaving it alone!".formatted(file));
+                    errorHandler.log("Failed to migrate config file '%s'!", e, file);
+                    failures.put(file, e);
+                    continue;
+                }
+
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        ConfigHolderImpl<?> holder = holders.get()[typeIndex];
+                        if (holder == null) holder = holders.get()[typeIndex] = createHolder(types.get(typeIndex), errorHandler);
+
+                        final DatafixReport report = configManager.migrateFile(holder, file, dryRun, errorHandler);
+                        if (report == null) skipped.add(file);
+                        else upgraded.put(file, report);
+                    } catch (Throwable e) {
+                        errorHandler.log("Failed to migrate config file '%s'!", e, file);
+                        failures.put(file, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } catch (IOException | UncheckedIOException e) {
+            errorHandler.log("Failed to walk directory '%s'! Some config files may not have been migrated.", e, rootDirectory);
+            failures.put(rootDirectory, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errorHandler.log("Interrupted while migrating directory '%s'! Some config files may not have been migrated.", e, rootDirectory);
+            failures.put(rootDirectory, e);
+        } finally {
+            // Wait for the remaining files
+            permits.acquireUninterruptibly(parallelism);
+            executor.shutdown();
+        }
+
+        return new MigrationReport(Duration.ofNanos(System.nanoTime() - startTime), Collections.unmodifiableMap(new TreeMap<>(upgraded)), Collections.unmodifiableSet(new TreeSet<>(skipped)), Collections.unmodifiableMap(new TreeMap<>(failures)));
+    }
+
+    private static <T extends Config> @NotNull ConfigHolderImpl<T> createHolder(final @NotNull Supplier<T> defaultConstructor, final @NotNull ErrorHandler errorHandler) {
+        return new ConfigHolderImpl<>(defaultConstructor, errorHandler);
+    }
+
+    /**
+     * Finds the config type of the provided file by the end of its path, which has to match the {@link Config#getId() id} and file extension of the type.
+     * <p>
+     *     Matching the file name alone isn't enough, other configs with the same file name may live anywhere under the root directory.
+     * </p>
+     *
+     * @return the index of the config type the file belongs to, {@link #NO_TYPE} if it doesn't belong to any or {@link #AMBIGUOUS_TYPE} if it can't be told which one it belongs to.
+     */
+    private static int findType(final @NotNull Path rootDirectory, final @NotNull Path file, final @NotNull Map<String, List<Integer>> typesByFileName, final @NotNull List<Path> typePaths) {
+        final Path fileName = file.getFileName();
+        if (fileName == null) return NO_TYPE;
+
+        final List<Integer> candidates = typesByFileName.get(fileName.toString());
+        if (candidates == null) return NO_TYPE;
+
+        final Path relativeFile = rootDirectory.relativize(file);
+        int match = NO_TYPE;
+        for (final int candidate : candidates) {
+            if (!relativeFile.endsWith(typePaths.get(candidate))) continue;
+            // Matching multiple paths can't be told apart
+            if (match != NO_TYPE) return AMBIGUOUS_TYPE;
+            match = candidate;
+        }
+        return match;
+    }
+}
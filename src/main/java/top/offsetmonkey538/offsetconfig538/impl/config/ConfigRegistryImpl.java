@@ -0,0 +1,118 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigHolder;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigManager;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigRegistry;
+import top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Implementation of {@link ConfigRegistry}
+ */
+@ApiStatus.Internal
+public final class ConfigRegistryImpl implements ConfigRegistry {
+    private final Map<String, ConfigHolder<?>> holders = new ConcurrentHashMap<>();
+    /**
+     * The shutdown hook, or {@code null} if it hasn't been installed.
+     */
+    private @Nullable Thread shutdownHook;
+    private volatile @NotNull Duration shutdownTimeout = Duration.ZERO;
+
+    @Override
+    public void registerImpl(@NotNull ConfigHolder<?> configHolder) {
+        final String id = configHolder.get().getId();
+
+        final ConfigHolder<?> existing = holders.putIfAbsent(id, configHolder);
+        if (existing != null && existing != configHolder) throw new IllegalArgumentException("A different config holder is already registered with the id '%s'!".formatted(id));
+    }
+
+    @Override
+    public boolean unregisterImpl(@NotNull ConfigHolder<?> configHolder) {
+        return holders.remove(configHolder.get().getId(), configHolder);
+    }
+
+    @Override
+    public @Nullable ConfigHolder<?> getImpl(@NotNull String id) {
+        return holders.get(id);
+    }
+
+    @Override
+    public @NotNull Collection<ConfigHolder<?>> getAllImpl() {
+        return List.copyOf(holders.values());
+    }
+
+    @Override
+    public @NotNull Set<ConfigHolder<?>> saveAllDirtyImpl(@Nullable Duration timeout) {
+        final long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+
+        final Map<ConfigHolder<?>, CompletableFuture<Boolean>> saves = new HashMap<>();
+        for (final ConfigHolder<?> configHolder : holders.values()) {
+            final ConfigHolderImpl<?> configHolderImpl = (ConfigHolderImpl<?>) configHolder;
+            if (!configHolderImpl.isDirty()) continue;
+
+            // Saving logs write failures instead of throwing
+            saves.put(configHolder, CompletableFuture.supplyAsync(() -> {
+                ConfigManager.save(configHolder);
+                return !configHolderImpl.saveFailed;
+            }, ConfigExecutors.IO));
+        }
+
+        final Set<ConfigHolder<?>> saved = new HashSet<>();
+        for (final Map.Entry<ConfigHolder<?>, CompletableFuture<Boolean>> save : saves.entrySet()) {
+            final ConfigHolder<?> configHolder = save.getKey();
+            try {
+                final boolean succeeded;
+                if (timeout == null) succeeded = save.getValue().get();
+                else succeeded = save.getValue().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+
+                if (succeeded) saved.add(configHolder);
+            } catch (TimeoutException e) {
+                configHolder.getErrorHandler().log("Config '%s' could not be saved within %s!", configHolder, timeout);
+            } catch (ExecutionException e) {
+                configHolder.getErrorHandler().log("Config file '%s' could not be saved!", e.getCause(), configHolder);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                configHolder.getErrorHandler().log("Interrupted while saving config '%s'!", e, configHolder);
+                break;
+            }
+        }
+        return Collections.unmodifiableSet(saved);
+    }
+
+    @Override
+    public @NotNull Set<ConfigHolder<?>> reloadAllImpl() {
+        final Map<ConfigHolder<?>, CompletableFuture<Boolean>> reloads = new HashMap<>();
+        for (final ConfigHolder<?> configHolder : holders.values()) {
+            reloads.put(configHolder, CompletableFuture.supplyAsync(() -> ConfigManager.reload(configHolder), ConfigExecutors.IO));
+        }
+
+        final Set<ConfigHolder<?>> reloaded = new HashSet<>();
+        for (final Map.Entry<ConfigHolder<?>, CompletableFuture<Boolean>> reload : reloads.entrySet()) {
+            final ConfigHolder<?> configHolder = reload.getKey();
+            try {
+                if (!reload.getValue().join()) continue;
+
+                reloaded.add(configHolder);
+                OffsetConfig538Events.CONFIG_RELOADED_EVENT.getInvoker().onConfigReloaded(configHolder);
+            } catch (Throwable e) {
+                configHolder.getErrorHandler().log("Config file '%s' could not be reloaded!", e, configHolder);
+            }
+        }
+        return Collections.unmodifiableSet(reloaded);
+    }
+
+    @Override
+    public synchronized void flushOnShutdownImpl(@NotNull Duration timeout) {
+        shutdownTimeout = timeout;
+        if (shutdownHook != null) return;
+
+        shutdownHook = new Thread(() -> saveAllDirtyImpl(shutdownTimeout), "OffsetConfig538 Shutdown Flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+}
@@ -0,0 +1,92 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.JsonElement;
+import blue.endless.jankson.JsonObject;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.api.config.SaveMode;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+
+/**
+ * Reads and writes binary snapshots of datafixed config json, used for skipping parsing on startup.
+ *
+ * @see top.offsetmonkey538.offsetconfig538.api.config.Config#getSnapshotPath()
+ */
+@ApiStatus.Internal
+public final class ConfigSnapshots {
+    private static final int MAGIC = 0x4F433533; // "OC53"
+    private static final int FORMAT_VERSION = 3;
+
+    private ConfigSnapshots() {
+
+    }
+
+    /**
+     * Reads a snapshot, but only if it was created from the config file identified by the provided key.
+     *
+     * @param snapshotPath the snapshot file
+     * @param key identifies the current config file
+     * @return the datafixed json, without the config version, or {@code null} if the snapshot doesn't exist, is outdated or is corrupted.
+     */
+    public static @Nullable JsonObject read(final @NotNull Path snapshotPath, final @NotNull Key key) {
+        if (!Files.exists(snapshotPath)) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return null;
+            if (in.readInt() != key.configVersion()) return null;
+
+            // Checked before allocating, a corrupted length could be anything
+            final int hashLength = in.readInt();
+            if (hashLength != key.contentHash().length) return null;
+            final byte[] contentHash = new byte[hashLength];
+            in.readFully(contentHash);
+            if (!MessageDigest.isEqual(contentHash, key.contentHash())) return null;
+
+            final JsonElement json = BinaryJson.read(in, Files.size(snapshotPath));
+            return json instanceof final JsonObject jsonObject ? jsonObject : null;
+        } catch (IOException | RuntimeException e) {
+            // Corrupted, will be overwritten after parsing the config file
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the provided json, created from the config file identified by the provided key.
+     *
+     * @param snapshotPath the snapshot file
+     * @param key identifies the config file the json was read from
+     * @param json the datafixed json, without the config version
+     * @throws IOException when writing fails.
+     */
+    public static void write(final @NotNull Path snapshotPath, final @NotNull Key key, final @NotNull JsonObject json) throws IOException {
+        ConfigFiles.write(snapshotPath, SaveMode.ATOMIC, out -> {
+            final DataOutputStream dataOut = new DataOutputStream(out);
+            dataOut.writeInt(MAGIC);
+            dataOut.writeInt(FORMAT_VERSION);
+            dataOut.writeInt(key.configVersion());
+            dataOut.writeInt(key.contentHash().length);
+            dataOut.write(key.contentHash());
+
+            BinaryJson.write(dataOut, json);
+            dataOut.flush();
+        });
+    }
+
+    /**
+     * Identifies a specific version of a config file.
+     *
+     * @param contentHash the {@link ContentHashes hash} of the config file
+     * @param configVersion the current {@link top.offsetmonkey538.offsetconfig538.api.config.Config#getConfigVersion() config version}
+     */
+    public record Key(byte @NotNull [] contentHash, int configVersion) {
+
+    }
+}
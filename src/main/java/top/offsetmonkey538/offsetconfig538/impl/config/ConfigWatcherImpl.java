@@ -0,0 +1,165 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.api.config.Config;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigHolder;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigManager;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigWatcher;
+import top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the {@link ConfigWatcher}
+ */
+@ApiStatus.Internal
+public final class ConfigWatcherImpl implements ConfigWatcher {
+    /**
+     * How long a file has to stay unchanged before it's reloaded.
+     */
+    private static final long DEBOUNCE_MILLIS = 250;
+
+    /**
+     * The watched holders, by the absolute path of their config file.
+     */
+    private final Map<Path, Set<ConfigHolder<?>>> watchedFiles = new ConcurrentHashMap<>();
+    /**
+     * The {@link WatchKey}s of all watched directories. Guarded by {@code this}.
+     */
+    private final Map<Path, WatchKey> watchedDirectories = new HashMap<>();
+    /**
+     * The currently running {@link WatchService}, or {@code null} if not running. Guarded by {@code this}.
+     */
+    private @Nullable WatchService watchService;
+
+    /**
+     * Constructs the {@link ConfigWatcher} implementation.
+     * <p>
+     * Should only be called when initializing {@link ConfigWatcher#INSTANCE}
+     */
+    @ApiStatus.Internal
+    public ConfigWatcherImpl() {
+
+    }
+
+    @Override
+    public synchronized <T extends Config> void watchImpl(@NotNull ConfigHolder<T> configHolder) {
+        final Path filePath = configHolder.get().getFilePath().toAbsolutePath().normalize();
+        final Path directory = filePath.getParent();
+
+        try {
+            if (watchService == null) start();
+
+            if (!watchedDirectories.containsKey(directory)) {
+                Files.createDirectories(directory);
+                watchedDirectories.put(directory, directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+            }
+        } catch (IOException e) {
+            configHolder.getErrorHandler().log("Unable to watch config file '%s' for changes!", e, configHolder);
+            return;
+        }
+
+        watchedFiles.computeIfAbsent(filePath, path -> ConcurrentHashMap.newKeySet()).add(configHolder);
+    }
+
+    @Override
+    public synchronized <T extends Config> void unwatchImpl(@NotNull ConfigHolder<T> configHolder) {
+        final Path filePath = configHolder.get().getFilePath().toAbsolutePath().normalize();
+
+        final Set<ConfigHolder<?>> holders = watchedFiles.get(filePath);
+        if (holders == null || !holders.remove(configHolder) || !holders.isEmpty()) return;
+        watchedFiles.remove(filePath);
+
+        final Path directory = filePath.getParent();
+        if (watchedFiles.keySet().stream().anyMatch(path -> path.getParent().equals(directory))) return;
+
+        final WatchKey key = watchedDirectories.remove(directory);
+        if (key != null) key.cancel();
+    }
+
+    @Override
+    public synchronized void shutdownImpl() {
+        if (watchService == null) return;
+
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Nothing we can do about it
+        }
+
+        watchService = null;
+        watchedDirectories.clear();
+        watchedFiles.clear();
+    }
+
+    private void start() throws IOException {
+        final WatchService newWatchService = FileSystems.getDefault().newWatchService();
+        watchService = newWatchService;
+
+        final Thread thread = ConfigExecutors.daemonThreadFactory("OffsetConfig538 Config Watcher").newThread(() -> run(newWatchService));
+        thread.start();
+    }
+
+    private void run(final @NotNull WatchService watchService) {
+        // Files waiting to be reloaded, mapped to the time they can be reloaded at
+        final Map<Path, Long> pendingReloads = new HashMap<>();
+
+        while (true) {
+            final WatchKey key;
+            try {
+                if (pendingReloads.isEmpty()) key = watchService.take();
+                else key = watchService.poll(Math.max(0, Collections.min(pendingReloads.values()) - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            if (key != null) {
+                final Path directory = (Path) key.watchable();
+                final long reloadTime = System.currentTimeMillis() + DEBOUNCE_MILLIS;
+
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were lost, just check everything in the directory
+                        for (final Path filePath : watchedFiles.keySet()) {
+                            if (filePath.getParent().equals(directory)) pendingReloads.put(filePath, reloadTime);
+                        }
+                        continue;
+                    }
+
+                    final Path filePath = directory.resolve((Path) event.context());
+                    if (watchedFiles.containsKey(filePath)) pendingReloads.put(filePath, reloadTime);
+                }
+                key.reset();
+            }
+
+            final long currentTime = System.currentTimeMillis();
+            final Iterator<Map.Entry<Path, Long>> iterator = pendingReloads.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<Path, Long> entry = iterator.next();
+                if (entry.getValue() > currentTime) continue;
+                iterator.remove();
+
+                reload(entry.getKey());
+            }
+        }
+    }
+
+    private void reload(final @NotNull Path filePath) {
+        final Set<ConfigHolder<?>> holders = watchedFiles.get(filePath);
+        if (holders == null) return;
+
+        for (final ConfigHolder<?> holder : holders) {
+            try {
+                if (ConfigManager.reload(holder)) OffsetConfig538Events.CONFIG_RELOADED_EVENT.getInvoker().onConfigReloaded(holder);
+            } catch (Throwable e) {
+                holder.getErrorHandler().log("Config file '%s' could not be reloaded!", e, holder);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.JsonElement;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utilities for hashing the contents of config files.
+ */
+@ApiStatus.Internal
+public final class ContentHashes {
+    private static final String ALGORITHM = "SHA-256";
+
+    private ContentHashes() {
+
+    }
+
+    /**
+     * Creates a new {@link MessageDigest} for hashing config contents.
+     *
+     * @return a new {@link MessageDigest}.
+     */
+    public static @NotNull MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every java implementation is required to support '%s'!".formatted(ALGORITHM), e);
+        }
+    }
+
+    /**
+     * Hashes the provided bytes.
+     *
+     * @param bytes the bytes to hash
+     * @return the hash of the provided bytes.
+     */
+    public static byte @NotNull [] hash(final byte @NotNull [] bytes) {
+        return newDigest().digest(bytes);
+    }
+
+    /**
+     * Hashes the {@link BinaryJson binary encoding} of the provided json, including comments.
+     *
+     * @param json the json to hash
+     * @return the hash of the provided json.
+     */
+    public static byte @NotNull [] hash(final @NotNull JsonElement json) {
+        final MessageDigest digest = newDigest();
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            BinaryJson.write(out, json);
+        } catch (IOException e) {
+            // Writes to nowhere, can't happen
+            throw new UncheckedIOException(e);
+        }
+        return digest.digest();
+    }
+}
@@ -0,0 +1,147 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonObject;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.api.config.CompositeDatafixer;
+import top.offsetmonkey538.offsetconfig538.api.config.Config;
+import top.offsetmonkey538.offsetconfig538.api.config.Datafixer;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@link Datafixer}s of a {@link Config} class, resolved once into the step to take from each version.
+ * <p>
+ *     {@link Config#getDatafixers()} and {@link Config#getCompositeDatafixers()} are only called when the pipeline is built.
+ * </p>
+ */
+@ApiStatus.Internal
+public final class DatafixerPipeline {
+    /**
+     * The pipeline last built for each config class. A {@link ClassValue}, so config classes can still be unloaded.
+     */
+    private static final ClassValue<AtomicReference<DatafixerPipeline>> PIPELINES = new ClassValue<>() {
+        @Override
+        protected AtomicReference<DatafixerPipeline> computeValue(final @NotNull Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    private final int currentVersion;
+    /**
+     * The step to take from each version, indexed by the version. {@code null} if there's no datafixer for that version.
+     */
+    private final @Nullable Step @NotNull [] steps;
+
+    private DatafixerPipeline(final @NotNull Config config) {
+        this.currentVersion = config.getConfigVersion();
+        this.steps = new Step[currentVersion];
+
+        final Datafixer[] datafixers = config.getDatafixers();
+        for (int version = 0; version < currentVersion && version < datafixers.length; version++) {
+            if (datafixers[version] != null) steps[version] = new Step(version, version + 1, datafixers[version]);
+        }
+
+        for (final CompositeDatafixer composite : config.getCompositeDatafixers()) {
+            // Can't upgrade past the current version
+            if (composite.toVersion() > currentVersion) continue;
+
+            final Step existing = steps[composite.fromVersion()];
+            if (existing == null || existing.toVersion() < composite.toVersion()) steps[composite.fromVersion()] = new Step(composite.fromVersion(), composite.toVersion(), composite.datafixer());
+        }
+    }
+
+    /**
+     * Returns the pipeline for the class of the provided config, building it if needed.
+     * <p>
+     *     Rebuilt if the {@link Config#getConfigVersion() config version} has changed since the pipeline was built.
+     * </p>
+     *
+     * @param config the config to get the pipeline for. Only used for building the pipeline.
+     * @return the pipeline for the class of the provided config.
+     */
+    public static @NotNull DatafixerPipeline of(final @NotNull Config config) {
+        final AtomicReference<DatafixerPipeline> cached = PIPELINES.get(config.getClass());
+        final DatafixerPipeline pipeline = cached.get();
+        if (pipeline != null && pipeline.currentVersion == config.getConfigVersion()) return pipeline;
+
+        final DatafixerPipeline newPipeline = new DatafixerPipeline(config);
+        cached.set(newPipeline);
+        return newPipeline;
+    }
+
+    /**
+     * Returns the version this pipeline upgrades to.
+     *
+     * @return the version this pipeline upgrades to.
+     */
+    public int getCurrentVersion() {
+        return currentVersion;
+    }
+
+    /**
+     * Returns the version json of the provided version would be upgraded to, without applying any datafixers.
+     *
+     * @param fromVersion the version of the json
+     * @return the version the json would be upgraded to. Lower than {@link #getCurrentVersion()} if a datafixer is missing.
+     */
+    public int getReachableVersion(final int fromVersion) {
+        int version = Math.max(fromVersion, 0);
+        while (version < currentVersion) {
+            final Step step = steps[version];
+            if (step == null) break;
+
+            version = step.toVersion();
+        }
+        return version;
+    }
+
+    /**
+     * Upgrades the provided json from the provided version as far as possible.
+     *
+     * @param json the json to upgrade
+     * @param jankson passed to the datafixers
+     * @param fromVersion the version of the json
+     * @param listener called after each step, may be {@code null}
+     * @return the version the json was upgraded to. Lower than {@link #getCurrentVersion()} if a datafixer is missing.
+     */
+    public int apply(final @NotNull JsonObject json, final @NotNull Jankson jankson, final int fromVersion, final @Nullable StepListener listener) {
+        int version = Math.max(fromVersion, 0);
+        while (version < currentVersion) {
+            final Step step = steps[version];
+            if (step == null) break;
+
+            step.datafixer().apply(json, jankson);
+            if (listener != null) listener.onStep(step.fromVersion(), step.toVersion());
+            version = step.toVersion();
+        }
+        return version;
+    }
+
+    /**
+     * A single upgrade done by the pipeline.
+     *
+     * @param fromVersion the version upgraded from
+     * @param toVersion the version upgraded to
+     * @param datafixer the datafixer doing the upgrade
+     */
+    private record Step(int fromVersion, int toVersion, @NotNull Datafixer datafixer) {
+
+    }
+
+    /**
+     * Called after each step of the pipeline.
+     */
+    @FunctionalInterface
+    public interface StepListener {
+        /**
+         * Called after the json was upgraded.
+         *
+         * @param fromVersion the version upgraded from
+         * @param toVersion the version upgraded to
+         */
+        void onStep(int fromVersion, int toVersion);
+    }
+}
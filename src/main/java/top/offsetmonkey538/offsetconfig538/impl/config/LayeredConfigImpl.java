@@ -0,0 +1,292 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonElement;
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.api.DeserializationException;
+import blue.endless.jankson.api.Marshaller;
+import blue.endless.jankson.api.SyntaxError;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.api.config.Config;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigHolder;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigManager;
+import top.offsetmonkey538.offsetconfig538.api.config.ConfigState;
+import top.offsetmonkey538.offsetconfig538.api.config.LayeredConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Implementation of {@link LayeredConfig}
+ *
+ * @param <T> your {@link Config} class
+ */
+@ApiStatus.Internal
+public final class LayeredConfigImpl<T extends Config> implements LayeredConfig<T> {
+    private final @NotNull ConfigHolderImpl<T> base;
+    private final @NotNull List<Path> layerPaths;
+    private final @NotNull ConfigCodec<T> codec;
+
+    /**
+     * The json of each layer file, or {@code null} if it doesn't exist.
+     * <p>
+     *     Only accessed while holding {@code this}, as are the other mutable fields.
+     *     Not guarded by the {@link ConfigHolderImpl#ioLock} of the base holder, so {@link #get()} doesn't wait for its file I/O unless the base config was replaced.
+     * </p>
+     */
+    private final @Nullable JsonObject @NotNull [] layerJsons;
+    /**
+     * The {@link ContentHashes hash} of each layer file, or {@code null} if it doesn't exist.
+     */
+    private final byte @Nullable [] @NotNull [] layerHashes;
+    /**
+     * The effective value of each of the {@link ConfigCodec#getFields() fields} of the config, in the same order.
+     */
+    private final @Nullable Object @NotNull [] values;
+    /**
+     * The {@link ConfigHolder#getGeneration() generation} of the base config the values were computed from, or {@code -1} if they haven't been computed yet.
+     * <p>
+     *     Written after {@link #effective}, so the effective config is up to date once this matches the generation of the base config.
+     * </p>
+     */
+    private volatile long resolvedGeneration = -1;
+    /**
+     * The cached effective config.
+     */
+    private volatile @NotNull T effective;
+
+    /**
+     * Creates a new layered config and reads its layer files.
+     *
+     * @param base the {@link ConfigHolder} of the base config
+     * @param layerPaths the layer files, the last one has the highest priority
+     */
+    public LayeredConfigImpl(final @NotNull ConfigHolder<T> base, final @NotNull List<Path> layerPaths) {
+        this.base = (ConfigHolderImpl<T>) base;
+        this.layerPaths = List.copyOf(layerPaths);
+
+        final ConfigCodec<T> codec = ConfigCodec.of(this.base.configClass);
+        if (codec == null) throw new IllegalArgumentException("Config class '%s' can't be layered as it has final or inaccessible fields!".formatted(this.base.configClass.getName()));
+        this.codec = codec;
+
+        this.layerJsons = new JsonObject[this.layerPaths.size()];
+        this.layerHashes = new byte[this.layerPaths.size()][];
+        this.values = new Object[codec.getFields().size()];
+        this.effective = base.get();
+
+        final Jankson jankson = jankson();
+        synchronized (this) {
+            for (int i = 0; i < layerJsons.length; i++) readLayer(i, new HashSet<>(), jankson);
+            resolve(Set.of(), jankson);
+        }
+    }
+
+    @Override
+    public @NotNull T get() {
+        // The base config may have been replaced without going through this layered config
+        if (base.getGeneration() != resolvedGeneration) refresh();
+        return effective;
+    }
+
+    @Override
+    public @NotNull ConfigHolder<T> getBase() {
+        return base;
+    }
+
+    @Override
+    public @NotNull List<Path> getLayerPaths() {
+        return layerPaths;
+    }
+
+    @Override
+    public boolean reload() {
+        ConfigManager.reload(base);
+
+        final Jankson jankson = jankson();
+        synchronized (this) {
+            final Set<String> changedKeys = new HashSet<>();
+            for (int i = 0; i < layerJsons.length; i++) readLayer(i, changedKeys, jankson);
+            return resolve(changedKeys, jankson);
+        }
+    }
+
+    @Override
+    public boolean reloadLayer(final int index) {
+        Objects.checkIndex(index, layerJsons.length);
+
+        final Jankson jankson = jankson();
+        synchronized (this) {
+            final Set<String> changedKeys = new HashSet<>();
+            readLayer(index, changedKeys, jankson);
+            return resolve(changedKeys, jankson);
+        }
+    }
+
+    @Override
+    public boolean refresh() {
+        final Jankson jankson = jankson();
+        synchronized (this) {
+            return resolve(Set.of(), jankson);
+        }
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return base.toString();
+    }
+
+    /**
+     * Returns the {@link Jankson} instance of the base holder.
+     * <p>
+     *     Must be called before taking {@code this}, as listeners of the base holder may refresh this layered config while its {@link ConfigHolderImpl#ioLock} is held.
+     * </p>
+     */
+    private @NotNull Jankson jankson() {
+        synchronized (base.ioLock) {
+            return ((ConfigManagerImpl) ConfigManager.INSTANCE).configureJankson(base);
+        }
+    }
+
+    /**
+     * Reads the layer file at the provided index if it changed, keeping the previous json when it can't be read.
+     *
+     * @param changedKeys where to add the keys whose value changed in the layer
+     */
+    private void readLayer(final int index, final @NotNull Set<String> changedKeys, final @NotNull Jankson jankson) {
+        final Path layerPath = layerPaths.get(index);
+
+        final JsonObject json;
+        final byte[] contentHash;
+        if (Files.exists(layerPath)) {
+            try {
+                final byte[] contents = Files.readAllBytes(layerPath);
+                contentHash = ContentHashes.hash(contents);
+                if (layerHashes[index] != null && MessageDigest.isEqual(layerHashes[index], contentHash)) return;
+
+                json = base.get().getFormat().read(new ByteArrayInputStream(contents), jankson);
+            } catch (IOException e) {
+                base.getErrorHandler().log("Layer file '%s' of config '%s' could not be read!", e, layerPath, base);
+                return;
+            } catch (SyntaxError e) {
+                base.getErrorHandler().log("Layer file '%s' of config '%s' is formatted incorrectly!", layerPath, base);
+                base.getErrorHandler().log(e.getMessage());
+                base.getErrorHandler().log(e.getLineMessage());
+                return;
+            }
+        } else {
+            if (layerHashes[index] == null && layerJsons[index] == null) return;
+            json = null;
+            contentHash = null;
+        }
+
+        final JsonObject oldJson = layerJsons[index];
+        if (oldJson != null) {
+            for (final String key : oldJson.keySet()) {
+                if (json == null || !Objects.equals(oldJson.get(key), json.get(key))) changedKeys.add(key);
+            }
+        }
+        if (json != null) {
+            for (final String key : json.keySet()) {
+                if (oldJson == null || !oldJson.containsKey(key)) changedKeys.add(key);
+            }
+        }
+
+        layerJsons[index] = json;
+        layerHashes[index] = contentHash;
+    }
+
+    /**
+     * Recomputes the values of the provided keys, or of all keys if the base config was replaced, and replaces the effective config if any were recomputed.
+     *
+     * @return whether the effective config was replaced.
+     */
+    private boolean resolve(final @NotNull Set<String> changedKeys, final @NotNull Jankson jankson) {
+        final ConfigState<T> baseState = base.getState();
+        final T baseConfig = baseState.config();
+        final long baseGeneration = baseState.generation();
+        final boolean baseChanged = baseGeneration != resolvedGeneration;
+        if (!baseChanged && changedKeys.isEmpty()) return false;
+
+        final List<ConfigCodec.FieldCodec> fields = codec.getFields();
+        final Marshaller marshaller = jankson.getMarshaller();
+        boolean recomputed = baseChanged;
+        for (int i = 0; i < values.length; i++) {
+            final ConfigCodec.FieldCodec field = fields.get(i);
+            if (!baseChanged && !changedKeys.contains(field.getName())) continue;
+
+            values[i] = resolve(field, baseConfig, marshaller);
+            recomputed = true;
+        }
+        if (!recomputed) {
+            resolvedGeneration = baseGeneration;
+            return false;
+        }
+
+        final T config = base.defaultConstructor.get();
+        for (int i = 0; i < values.length; i++) {
+            fields.get(i).set(config, values[i]);
+        }
+        for (final ConfigCodec.FieldCodec shard : codec.getShards()) {
+            shard.set(config, shard.get(baseConfig));
+        }
+        effective = config;
+        resolvedGeneration = baseGeneration;
+        return true;
+    }
+
+    /**
+     * Computes the effective value of the provided field, merging the json of all layers containing it.
+     */
+    private @Nullable Object resolve(final @NotNull ConfigCodec.FieldCodec field, final @NotNull T baseConfig, final @NotNull Marshaller marshaller) {
+        JsonElement merged = null;
+        for (final JsonObject layerJson : layerJsons) {
+            final JsonElement element = layerJson == null ? null : layerJson.get(field.getName());
+            if (element == null) continue;
+
+            if (!(element instanceof final JsonObject object)) {
+                merged = element;
+                continue;
+            }
+            if (merged == null) merged = field.serialize(baseConfig, marshaller);
+            if (!(merged instanceof final JsonObject mergedObject)) {
+                merged = object;
+                continue;
+            }
+
+            // Copied, so layer json is never modified
+            final JsonObject mergedCopy = mergedObject.clone();
+            merge(mergedCopy, object);
+            merged = mergedCopy;
+        }
+        // Not overridden, share the value with the base config
+        if (merged == null) return field.get(baseConfig);
+
+        try {
+            // Strict, so values of the wrong type are reported instead of silently becoming null
+            return field.unmarshall(merged, marshaller, true);
+        } catch (DeserializationException e) {
+            base.getErrorHandler().log("Layers of config '%s' contain an invalid value for '%s'! Using the value of the base config instead.", e, base, field.getName());
+            return field.get(baseConfig);
+        }
+    }
+
+    /**
+     * Merges the provided json into the provided target, recursing into objects present in both.
+     */
+    private static void merge(final @NotNull JsonObject target, final @NotNull JsonObject json) {
+        for (final String key : json.keySet()) {
+            final JsonElement element = json.get(key);
+            if (target.get(key) instanceof final JsonObject targetObject && element instanceof final JsonObject object) merge(targetObject, object);
+            else target.put(key, element.clone());
+        }
+    }
+}
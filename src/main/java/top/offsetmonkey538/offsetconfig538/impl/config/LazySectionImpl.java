@@ -0,0 +1,144 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.JsonElement;
+import blue.endless.jankson.JsonNull;
+import blue.endless.jankson.api.Marshaller;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.api.config.ErrorHandler;
+import top.offsetmonkey538.offsetconfig538.api.config.LazySection;
+
+import java.lang.reflect.Type;
+
+/**
+ * Implementation of {@link LazySection}
+ *
+ * @param <V> the type of the section
+ */
+@ApiStatus.Internal
+public final class LazySectionImpl<V> implements LazySection<V> {
+    /**
+     * Used when the json can't be deserialized.
+     */
+    private final @Nullable V defaultValue;
+    /**
+     * Whether {@link #value} has been set. Written last, so everything else is visible once it's {@code true}.
+     */
+    private volatile boolean loaded;
+    private @Nullable V value;
+    /**
+     * The json of this section until it's loaded. Guarded by {@code this} until loaded.
+     */
+    private @Nullable JsonElement json;
+    private @Nullable Type type;
+    private @Nullable Marshaller marshaller;
+    private @Nullable ErrorHandler errorHandler;
+
+    /**
+     * Creates a loaded section.
+     *
+     * @param value the value of the section
+     */
+    public LazySectionImpl(final @Nullable V value) {
+        this.defaultValue = value;
+        this.value = value;
+        this.loaded = true;
+    }
+
+    /**
+     * Creates a section which is deserialized from the provided json when first accessed.
+     *
+     * @param json the json of the section
+     * @param type the type to deserialize the json into
+     * @param marshaller the {@link Marshaller} to deserialize the json with
+     * @param defaultValue the value to use if the json can't be deserialized
+     * @param errorHandler the {@link ErrorHandler} to report deserialization errors to
+     */
+    public LazySectionImpl(final @NotNull JsonElement json, final @NotNull Type type, final @NotNull Marshaller marshaller, final @Nullable V defaultValue, final @NotNull ErrorHandler errorHandler) {
+        this.defaultValue = defaultValue;
+        this.json = json;
+        this.type = type;
+        this.marshaller = marshaller;
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public @Nullable V get() {
+        if (loaded) return value;
+
+        synchronized (this) {
+            if (loaded) return value;
+
+            try {
+                //noinspection DataFlowIssue: Not loaded, so these are set
+                final V deserialized = marshaller.marshall(type, json);
+                value = deserialized == null ? defaultValue : deserialized;
+            } catch (RuntimeException e) {
+                //noinspection DataFlowIssue: Not loaded, so these are set
+                errorHandler.log("Lazy section could not be deserialized from '%s'! Using the default value.", e, json.toJson());
+                value = defaultValue;
+            }
+
+            // Not needed anymore
+            json = null;
+            type = null;
+            marshaller = null;
+            errorHandler = null;
+
+            loaded = true;
+            return value;
+        }
+    }
+
+    @Override
+    public synchronized void set(final @Nullable V value) {
+        this.value = value;
+        json = null;
+        type = null;
+        marshaller = null;
+        errorHandler = null;
+
+        loaded = true;
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns the json of this section if it hasn't been loaded yet.
+     *
+     * @return the json of this section, or {@code null} if it has been loaded.
+     */
+    public @Nullable JsonElement getJson() {
+        if (loaded) return null;
+
+        synchronized (this) {
+            return loaded ? null : json;
+        }
+    }
+
+    /**
+     * Serializes this section. Returns the original json if the section hasn't been loaded.
+     *
+     * @param marshaller the {@link Marshaller} to serialize the value with
+     * @return the serialized section.
+     */
+    public @NotNull JsonElement toJson(final @NotNull Marshaller marshaller) {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded && json != null) return json;
+            }
+        }
+
+        final JsonElement result = marshaller.serialize(value);
+        return result == null ? JsonNull.INSTANCE : result;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return loaded ? "LazySection[" + value + "]" : "LazySection[not loaded]";
+    }
+}
@@ -19,8 +19,15 @@ public class EventImpl<T> implements Event<T> {
     private final Function<T[], T> invokerFactory;
     /**
      * List of handlers
+     * <p>
+     *     Never modified after being set, {@link #listen(Object)} replaces it with a new array instead.
+     * </p>
      */
-    private T[] handlers;
+    private volatile T[] handlers;
+    /**
+     * Invoker created from {@link #handlers}, rebuilt whenever a listener is registered.
+     */
+    private volatile T invoker;
 
     /**
      * Creates a new event
@@ -32,21 +39,36 @@ public class EventImpl<T> implements Event<T> {
     public EventImpl(final Class<T> type, Function<T[], T> invokerFactory) {
         this.invokerFactory = invokerFactory;
         this.handlers = (T[]) Array.newInstance(type, 0);
+        this.invoker = invokerFactory.apply(handlers);
     }
 
     @Override
-    public void listen(T listener) {
+    public synchronized void listen(T listener) {
         @SuppressWarnings("unchecked")
         final T[] newArray = (T[]) Array.newInstance(handlers.getClass().getComponentType(), handlers.length + 1);
 
         System.arraycopy(handlers, 0, newArray, 0, handlers.length);
         newArray[handlers.length] = listener;
 
+        // Invoker first, so anyone seeing the new listener count also sees the new invoker
+        this.invoker = invokerFactory.apply(newArray);
         this.handlers = newArray;
     }
 
+    /**
+     * Returns the amount of listeners registered to this event.
+     * <p>
+     *     As listeners can't be removed, this only ever increases and can be used to detect new registrations.
+     * </p>
+     *
+     * @return the amount of listeners registered to this event.
+     */
+    public int getListenerCount() {
+        return handlers.length;
+    }
+
     @Override
     public T getInvoker() {
-        return invokerFactory.apply(handlers);
+        return invoker;
     }
 }
@@ -0,0 +1,57 @@
+package top.offsetmonkey538.offsetconfig538.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every benchmark once, so broken benchmarks are noticed without running JMH.
+ */
+public class BenchmarkSmokeTest {
+
+    @Test
+    public void configManagerBenchmarkTest() throws IOException {
+        final ConfigManagerBenchmark benchmark = new ConfigManagerBenchmark();
+        benchmark.size = 100;
+        benchmark.setup();
+        try {
+            assertEquals(100, benchmark.load().entries.size());
+            assertNotNull(benchmark.save());
+        } finally {
+            benchmark.tearDown();
+        }
+    }
+
+    @Test
+    public void datafixerBenchmarkTest() {
+        final DatafixerBenchmark benchmark = new DatafixerBenchmark();
+        benchmark.chainLength = 10;
+        benchmark.setup();
+
+        // Every datafixer increments the value
+        assertEquals(10, benchmark.datafix().value);
+    }
+
+    @Test
+    public void eventBenchmarkTest() {
+        final EventBenchmark benchmark = new EventBenchmark();
+        benchmark.listeners = 10;
+        benchmark.setup();
+
+        assertEquals(10 * 538, benchmark.invoke());
+    }
+
+    @Test
+    public void janksonConfigurationBenchmarkTest() {
+        final JanksonConfigurationBenchmark benchmark = new JanksonConfigurationBenchmark();
+        benchmark.setup();
+
+        assertNotNull(benchmark.build());
+        assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000538"), benchmark.loadCached().id);
+        assertEquals(Duration.ofMillis(538), benchmark.loadRebuilt().timeout);
+    }
+}
@@ -0,0 +1,73 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkInitTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void initAllTest() {
+        final List<ConfigHolder<BulkConfig>> holders = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            final String id = "bulk_" + i;
+            holders.add(ConfigHolder.create(() -> new BulkConfig(dir, id), ErrorHandler.SYSTEM_ERR));
+        }
+
+        final BulkInitResult result = ConfigManager.initAll(holders);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(Set.copyOf(holders), result.written());
+        assertEquals(Set.copyOf(holders), result.timings().keySet());
+        for (final ConfigHolder<BulkConfig> holder : holders) assertTrue(Files.exists(holder.get().getFilePath()));
+
+        // Already up to date
+        assertTrue(ConfigManager.initAll(holders).written().isEmpty());
+    }
+
+    @Test
+    public void failureDoesNotAffectOthersTest() {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<BulkConfig> working = ConfigHolder.create(() -> new BulkConfig(dir, "working"), ErrorHandler.SYSTEM_ERR);
+        final ConfigHolder<FailingConfig> failing = ConfigHolder.create(() -> new FailingConfig(dir), errorHandler);
+
+        final BulkInitResult result = ConfigManager.initAll(List.of(working, failing));
+
+        assertFalse(result.isSuccessful());
+        assertEquals(Set.of(failing), result.failures().keySet());
+        assertInstanceOf(IllegalStateException.class, result.failures().get(failing));
+        assertTrue(errorHandler.logged("could not be initialized"), errorHandler.getErrors().toString());
+        assertEquals(Set.of(working), result.written());
+    }
+
+    private static class BulkConfig extends DirectoryConfig {
+        public int value = 1;
+
+        BulkConfig(final Path dir, final String id) {
+            super(dir, id);
+        }
+    }
+
+    private static class FailingConfig extends DirectoryConfig {
+        public int value = 1;
+
+        FailingConfig(final Path dir) {
+            super(dir, "failing");
+        }
+
+        @Override
+        public void beforeLoadStart() {
+            throw new IllegalStateException("Broken config");
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigChangeEventsTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void changedValueTest() {
+        final ConfigHolder<ChangeConfig> holder = ConfigHolder.create(() -> new ChangeConfig(dir), ErrorHandler.SYSTEM_ERR);
+        final List<String> changes = new ArrayList<>();
+        holder.onChange("name", String.class).listen((oldValue, newValue) -> changes.add(oldValue + " -> " + newValue));
+
+        holder.set(copy(holder.get(), config -> config.name = "changed"));
+        assertEquals(List.of("default -> changed"), changes);
+
+        // Equal, but not the same instance
+        holder.set(copy(holder.get(), config -> config.name = new String("changed")));
+        // Other keys changing don't matter
+        holder.set(copy(holder.get(), config -> config.count = 5));
+        assertEquals(List.of("default -> changed"), changes);
+    }
+
+    @Test
+    public void nestedValueTest() {
+        final ConfigHolder<ChangeConfig> holder = ConfigHolder.create(() -> new ChangeConfig(dir), ErrorHandler.SYSTEM_ERR);
+        final List<Integer> valueChanges = new ArrayList<>();
+        final List<Nested> nestedChanges = new ArrayList<>();
+        holder.onChange("nested.value", Integer.class).listen((oldValue, newValue) -> valueChanges.add(newValue));
+        holder.onChange("nested", Nested.class).listen((oldValue, newValue) -> nestedChanges.add(newValue));
+
+        // Compared field by field, as nested doesn't override equals
+        holder.set(copy(holder.get(), config -> config.nested = new Nested()));
+        assertEquals(List.of(), valueChanges);
+        assertEquals(List.of(), nestedChanges);
+
+        holder.set(copy(holder.get(), config -> {
+            config.nested = new Nested();
+            config.nested.value = 2;
+        }));
+        assertEquals(List.of(2), valueChanges);
+        assertEquals(1, nestedChanges.size());
+        assertEquals(2, nestedChanges.get(0).value);
+    }
+
+    @Test
+    public void mapEntryTest() {
+        final ConfigHolder<ChangeConfig> holder = ConfigHolder.create(() -> new ChangeConfig(dir), ErrorHandler.SYSTEM_ERR);
+        final List<String> changes = new ArrayList<>();
+        holder.onChange("limits.x", Integer.class).listen((oldValue, newValue) -> changes.add(oldValue + " -> " + newValue));
+
+        holder.set(copy(holder.get(), config -> config.limits = new HashMap<>(Map.of("x", 1, "y", 5))));
+        holder.set(copy(holder.get(), config -> config.limits = new HashMap<>(Map.of("y", 5))));
+        assertEquals(List.of("null -> 1", "1 -> null"), changes);
+    }
+
+    @Test
+    public void reloadTest() throws IOException {
+        final ConfigHolder<ChangeConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new ChangeConfig(dir), ErrorHandler.SYSTEM_ERR));
+        final List<String> changes = new ArrayList<>();
+        holder.onChange("name", String.class).listen((oldValue, newValue) -> changes.add(newValue));
+
+        final Path filePath = holder.get().getFilePath();
+        Files.writeString(filePath, Files.readString(filePath).replace("\"name\": \"default\"", "\"name\": \"reloaded\""));
+        assertTrue(ConfigManager.reload(holder));
+
+        assertEquals(List.of("reloaded"), changes);
+    }
+
+    @Test
+    public void failingListenerTest() {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<ChangeConfig> holder = ConfigHolder.create(() -> new ChangeConfig(dir), errorHandler);
+        final List<Integer> changes = new ArrayList<>();
+        holder.onChange("name", String.class).listen((oldValue, newValue) -> {
+            throw new IllegalStateException("Listener failed");
+        });
+        holder.onChange("count", Integer.class).listen((oldValue, newValue) -> changes.add(newValue));
+
+        holder.set(copy(holder.get(), config -> {
+            config.name = "changed";
+            config.count = 3;
+        }));
+
+        assertEquals("changed", holder.get().name);
+        assertEquals(List.of(3), changes);
+        assertTrue(errorHandler.logged("Change listener"), errorHandler.getErrors().toString());
+    }
+
+    @Test
+    public void invalidKeyPathTest() {
+        final ConfigHolder<ChangeConfig> holder = ConfigHolder.create(() -> new ChangeConfig(dir), ErrorHandler.SYSTEM_ERR);
+        final ConfigHolder<ImmutableConfig> immutableHolder = ConfigHolder.create(() -> new ImmutableConfig(dir), ErrorHandler.SYSTEM_ERR);
+
+        assertThrows(IllegalArgumentException.class, () -> holder.onChange("missing", Object.class));
+        assertThrows(IllegalArgumentException.class, () -> holder.onChange("nested.missing", Object.class));
+        assertThrows(IllegalArgumentException.class, () -> holder.onChange("name", Integer.class));
+        // Final fields and no equals, so it can't be compared
+        assertThrows(IllegalArgumentException.class, () -> immutableHolder.onChange("immutable", Object.class));
+        assertThrows(IllegalArgumentException.class, () -> immutableHolder.onChange("immutable.value", Object.class));
+    }
+
+    private static @NotNull ChangeConfig copy(final @NotNull ChangeConfig config, final @NotNull Modification modification) {
+        final ChangeConfig copy = new ChangeConfig(config.getDir());
+        copy.name = config.name;
+        copy.count = config.count;
+        copy.nested = config.nested;
+        copy.limits = config.limits;
+        modification.apply(copy);
+        return copy;
+    }
+
+    @FunctionalInterface
+    private interface Modification {
+        void apply(@NotNull ChangeConfig config);
+    }
+
+    private static class ChangeConfig extends DirectoryConfig {
+        public String name = "default";
+        public int count = 0;
+        public Nested nested = new Nested();
+        public Map<String, Integer> limits = new HashMap<>();
+
+        ChangeConfig(final Path dir) {
+            super(dir, "change");
+        }
+    }
+
+    private static class ImmutableConfig extends DirectoryConfig {
+        public Immutable immutable = new Immutable(0);
+
+        ImmutableConfig(final Path dir) {
+            super(dir, "immutable");
+        }
+    }
+
+    public static class Nested {
+        public int value = 1;
+    }
+
+    public static class Immutable {
+        public final int value;
+
+        public Immutable(final int value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.JsonPrimitive;
+import blue.endless.jankson.api.DeserializationException;
+import blue.endless.jankson.api.SyntaxError;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigCodecTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void serializeMatchesJanksonTest() {
+        final Jankson jankson = Jankson.builder().build();
+        final ConfigCodec<PlainConfig> codec = ConfigCodec.of(PlainConfig.class);
+        assertNotNull(codec);
+
+        final PlainConfig config = PlainConfig.modified();
+        assertEquals(jankson.toJson(config), codec.serialize(config, jankson.getMarshaller()));
+    }
+
+    @Test
+    public void deserializeRoundTripTest() throws DeserializationException {
+        final Jankson jankson = Jankson.builder().build();
+        final ConfigCodec<PlainConfig> codec = ConfigCodec.of(PlainConfig.class);
+        assertNotNull(codec);
+
+        final JsonObject json = (JsonObject) jankson.toJson(PlainConfig.modified());
+        final PlainConfig config = new PlainConfig();
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        codec.deserialize(config, json, jankson.getMarshaller(), true, errorHandler);
+        assertEquals(List.of(), errorHandler.getErrors());
+
+        final PlainConfig expected = PlainConfig.modified();
+        assertEquals(expected.count, config.count);
+        assertEquals(expected.small, config.small);
+        assertEquals(expected.ratio, config.ratio);
+        assertEquals(expected.enabled, config.enabled);
+        assertEquals(expected.name, config.name);
+        assertEquals(expected.names, config.names);
+        assertEquals(expected.limits, config.limits);
+    }
+
+    @Test
+    public void strictRejectsOutOfRangeValuesTest() {
+        final Jankson jankson = Jankson.builder().build();
+        final ConfigCodec<PlainConfig> codec = ConfigCodec.of(PlainConfig.class);
+        assertNotNull(codec);
+
+        final JsonObject json = new JsonObject();
+        json.put("small", new JsonPrimitive(300));
+
+        assertThrows(DeserializationException.class, () -> codec.deserialize(new PlainConfig(), json, jankson.getMarshaller(), true, ErrorHandler.SYSTEM_ERR));
+    }
+
+    @Test
+    public void customSerializerIsUsedTest() throws IOException, SyntaxError {
+        final ConfigHolder<CustomConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new CustomConfig(dir), ErrorHandler.SYSTEM_ERR));
+        holder.update(config -> {
+            final CustomConfig copy = new CustomConfig(dir);
+            copy.value = "changed";
+            return copy;
+        });
+        ConfigManager.save(holder);
+
+        final JsonObject json = Jankson.builder().build().load(holder.get().getFilePath().toFile());
+        assertEquals(new JsonPrimitive("changed"), json.get("custom"));
+        assertFalse(json.containsKey("value"));
+
+        final ConfigHolder<CustomConfig> reloaded = ConfigManager.init(ConfigHolder.create(() -> new CustomConfig(dir), ErrorHandler.SYSTEM_ERR));
+        assertEquals("changed", reloaded.get().value);
+    }
+
+    public static class PlainConfig extends DirectoryConfig {
+        public int count = 1;
+        public byte small = 2;
+        public double ratio = 0.5;
+        public boolean enabled = false;
+        public String name = "default";
+        public List<String> names = new ArrayList<>(List.of("a"));
+        public Map<String, Integer> limits = new HashMap<>();
+
+        PlainConfig() {
+            // Never written to disk
+            super(Path.of("."), "plain");
+        }
+
+        static PlainConfig modified() {
+            final PlainConfig config = new PlainConfig();
+            config.count = 42;
+            config.small = -7;
+            config.ratio = 2.25;
+            config.enabled = true;
+            config.name = "modified";
+            config.names = new ArrayList<>(List.of("b", "c"));
+            config.limits = new HashMap<>(Map.of("max", 10));
+            return config;
+        }
+    }
+
+    private static class CustomConfig extends DirectoryConfig {
+        public String value = "default";
+
+        CustomConfig(final Path dir) {
+            super(dir, "custom");
+        }
+
+        @Override
+        public void configureJankson(final @NotNull Jankson.Builder builder) {
+            builder.registerSerializer(CustomConfig.class, (config, marshaller) -> {
+                final JsonObject json = new JsonObject();
+                json.put("custom", new JsonPrimitive(config.value));
+                return json;
+            });
+            builder.registerDeserializer(JsonObject.class, CustomConfig.class, (json, marshaller) -> {
+                final CustomConfig config = new CustomConfig(getDir());
+                if (json.get("custom") instanceof final JsonPrimitive custom) config.value = custom.asString();
+                return config;
+            });
+        }
+    }
+}
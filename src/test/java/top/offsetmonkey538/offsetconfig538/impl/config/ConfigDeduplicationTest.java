@@ -0,0 +1,100 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigDeduplicationTest {
+    private static final String FILE_CONTENTS = "{ \"name\": \"shared\", \"tags\": [\"a\", \"b\"], \"count\": 1000, \"!!!version\": 0 }";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void identicalValuesAreSharedTest() throws IOException {
+        final ConfigHolder<DeduplicatedConfig> first = load(() -> new DeduplicatedConfig(dir, "first"));
+        final ConfigHolder<DeduplicatedConfig> second = load(() -> new DeduplicatedConfig(dir, "second"));
+
+        assertNotSame(first.get(), second.get());
+        assertSame(first.get().name, second.get().name);
+        assertSame(first.get().count, second.get().count);
+    }
+
+    @Test
+    public void collectionsAreNotSharedTest() throws IOException {
+        final ConfigHolder<DeduplicatedConfig> first = load(() -> new DeduplicatedConfig(dir, "first"));
+        final ConfigHolder<DeduplicatedConfig> second = load(() -> new DeduplicatedConfig(dir, "second"));
+
+        assertNotSame(first.get().tags, second.get().tags);
+        assertSame(first.get().tags.get(0), second.get().tags.get(0));
+
+        first.get().tags.add("c");
+        assertEquals(List.of("a", "b"), second.get().tags);
+    }
+
+    @Test
+    public void replacingOneConfigDoesNotAffectOthersTest() throws IOException {
+        final ConfigHolder<DeduplicatedConfig> first = load(() -> new DeduplicatedConfig(dir, "first"));
+        final ConfigHolder<DeduplicatedConfig> second = load(() -> new DeduplicatedConfig(dir, "second"));
+
+        first.update(config -> {
+            final DeduplicatedConfig copy = new DeduplicatedConfig(dir, "first");
+            copy.name = "changed";
+            copy.tags = new ArrayList<>(List.of("c"));
+            return copy;
+        });
+
+        assertEquals("shared", second.get().name);
+        assertEquals(List.of("a", "b"), second.get().tags);
+        assertNotSame(first.get(), second.get());
+    }
+
+    @Test
+    public void otherConfigsAreNotSharedTest() throws IOException {
+        final ConfigHolder<PlainConfig> first = load(() -> new PlainConfig(dir, "first_plain"));
+        final ConfigHolder<PlainConfig> second = load(() -> new PlainConfig(dir, "second_plain"));
+
+        assertEquals(first.get().tags, second.get().tags);
+        assertNotSame(first.get().tags, second.get().tags);
+    }
+
+    private static <T extends Config> @NotNull ConfigHolder<T> load(final @NotNull Supplier<T> defaultConstructor) throws IOException {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<T> holder = ConfigHolder.create(defaultConstructor, errorHandler);
+        Files.writeString(holder.get().getFilePath(), FILE_CONTENTS);
+        ConfigManager.load(holder);
+        assertEquals(List.of(), errorHandler.getErrors());
+        return holder;
+    }
+
+    private static class PlainConfig extends DirectoryConfig {
+        public String name = "default";
+        public List<String> tags = new ArrayList<>();
+        public Integer count = 0;
+
+        PlainConfig(final Path dir, final String id) {
+            super(dir, id);
+        }
+    }
+
+    private static class DeduplicatedConfig extends PlainConfig {
+        DeduplicatedConfig(final Path dir, final String id) {
+            super(dir, id);
+        }
+
+        @Override
+        public boolean isDeduplicated() {
+            return true;
+        }
+    }
+}
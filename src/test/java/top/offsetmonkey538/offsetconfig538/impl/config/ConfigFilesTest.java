@@ -0,0 +1,91 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.SaveMode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigFilesTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void writeRoundTripTest() throws IOException {
+        for (final SaveMode saveMode : SaveMode.values()) {
+            final Path filePath = dir.resolve(saveMode.name().toLowerCase() + ".json");
+            final byte[] contents = ("{ \"mode\": \"" + saveMode + "\" }").getBytes(StandardCharsets.UTF_8);
+
+            final byte[] hash = ConfigFiles.write(filePath, saveMode, out -> out.write(contents));
+
+            assertArrayEquals(contents, Files.readAllBytes(filePath));
+            assertArrayEquals(ContentHashes.hash(contents), hash);
+        }
+        assertEquals(SaveMode.values().length, files().size(), "Temporary files were left behind");
+    }
+
+    @Test
+    public void failedAtomicWriteKeepsFileTest() throws IOException {
+        final Path filePath = dir.resolve("config.json");
+        Files.writeString(filePath, "old");
+
+        assertThrows(IOException.class, () -> ConfigFiles.write(filePath, SaveMode.ATOMIC, out -> {
+            out.write("half of the new con".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("Disk full");
+        }));
+
+        assertEquals("old", Files.readString(filePath));
+        assertEquals(List.of(filePath), files());
+    }
+
+    @Test
+    public void atomicWriteReplacesSymlinkTargetTest() throws IOException {
+        final Path target = Files.createDirectory(dir.resolve("shared")).resolve("config.json");
+        Files.writeString(target, "old");
+        final Path link;
+        try {
+            link = Files.createSymbolicLink(dir.resolve("config.json"), target);
+        } catch (UnsupportedOperationException | IOException e) {
+            // Symlinks need extra privileges on some platforms
+            return;
+        }
+
+        ConfigFiles.write(link, SaveMode.ATOMIC, out -> out.write("new".getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(Files.isSymbolicLink(link));
+        assertEquals("new", Files.readString(target));
+    }
+
+    @Test
+    public void atomicWriteKeepsPermissionsTest() throws IOException {
+        final Path filePath = dir.resolve("config.json");
+        Files.writeString(filePath, "old");
+
+        final PosixFileAttributeView view = Files.getFileAttributeView(filePath, PosixFileAttributeView.class);
+        if (view == null) return;
+        final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-------");
+        view.setPermissions(permissions);
+
+        ConfigFiles.write(filePath, SaveMode.ATOMIC, out -> out.write("new".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("new", Files.readString(filePath));
+        assertEquals(permissions, Files.getPosixFilePermissions(filePath));
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.JsonPrimitive;
+import blue.endless.jankson.api.SyntaxError;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigFormatTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void roundTripTest() {
+        final Map<String, ConfigFormat> formats = Map.of("json5", ConfigFormat.JSON5, "compact", ConfigFormat.COMPACT_JSON, "binary", ConfigFormat.BINARY, "base64", new Base64Format());
+        formats.forEach((id, format) -> {
+            final ConfigHolder<FormatConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new FormatConfig(dir, id, format), ErrorHandler.SYSTEM_ERR));
+            holder.update(config -> {
+                final FormatConfig copy = new FormatConfig(dir, id, format);
+                copy.name = "changed";
+                copy.tags = new ArrayList<>(List.of("a", "b"));
+                copy.limits = new TreeMap<>(Map.of("x", 1, "y", 2));
+                return copy;
+            });
+            ConfigManager.save(holder);
+
+            final ConfigHolder<FormatConfig> loaded = ConfigManager.init(ConfigHolder.create(() -> new FormatConfig(dir, id, format), ErrorHandler.SYSTEM_ERR));
+            assertEquals("changed", loaded.get().name, id);
+            assertEquals(List.of("a", "b"), loaded.get().tags, id);
+            assertEquals(Map.of("x", 1, "y", 2), loaded.get().limits, id);
+        });
+    }
+
+    @Test
+    public void fileExtensionTest() {
+        assertEquals(dir.resolve("format.json"), new FormatConfig(dir, "format", ConfigFormat.JSON5).getFilePath());
+        assertEquals(dir.resolve("format.json"), new FormatConfig(dir, "format", ConfigFormat.COMPACT_JSON).getFilePath());
+        assertEquals(dir.resolve("format.bin"), new FormatConfig(dir, "format", ConfigFormat.BINARY).getFilePath());
+        assertEquals(dir.resolve("format.b64"), new FormatConfig(dir, "format", new Base64Format()).getFilePath());
+    }
+
+    @Test
+    public void compactJsonTest() throws IOException {
+        final ConfigHolder<FormatConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new FormatConfig(dir, "format", ConfigFormat.COMPACT_JSON), ErrorHandler.SYSTEM_ERR));
+
+        final String contents = Files.readString(holder.get().getFilePath());
+        assertFalse(contents.contains("\n"), contents);
+        assertFalse(contents.contains("//"), contents);
+        assertTrue(contents.contains("\"name\":\"default\""), contents);
+    }
+
+    @Test
+    public void binaryKeepsCommentsTest() throws IOException, SyntaxError {
+        final JsonObject json = new JsonObject();
+        json.put("name", new JsonPrimitive("binary"), "A comment");
+
+        final Path filePath = dir.resolve("comments.bin");
+        try (OutputStream out = Files.newOutputStream(filePath)) {
+            ConfigFormat.BINARY.write(json, out);
+        }
+        final JsonObject readJson;
+        try (InputStream in = Files.newInputStream(filePath)) {
+            readJson = ConfigFormat.BINARY.read(in, Jankson.builder().build());
+        }
+
+        assertEquals(json, readJson);
+        assertEquals("A comment", readJson.getComment("name"));
+    }
+
+    @Test
+    public void corruptedBinaryFileTest() throws IOException {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<FormatConfig> holder = ConfigHolder.create(() -> new FormatConfig(dir, "format", ConfigFormat.BINARY), errorHandler);
+        Files.writeString(holder.get().getFilePath(), "{ \"name\": \"not binary\" }");
+
+        ConfigManager.load(holder);
+
+        assertEquals("default", holder.get().name);
+        assertTrue(errorHandler.logged("could not be read"), errorHandler.getErrors().toString());
+    }
+
+    @Test
+    public void customFormatTest() throws IOException {
+        final ConfigHolder<FormatConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new FormatConfig(dir, "format", new Base64Format()), ErrorHandler.SYSTEM_ERR));
+
+        final String contents = Files.readString(holder.get().getFilePath());
+        final String decoded = new String(Base64.getDecoder().decode(contents), StandardCharsets.UTF_8);
+        assertTrue(decoded.contains("\"name\":\"default\""), decoded);
+    }
+
+    /**
+     * Compact json encoded in base64, to check formats outside the library are used for both reading and writing.
+     */
+    private static class Base64Format implements ConfigFormat {
+        @Override
+        public @NotNull JsonObject read(@NotNull InputStream in, @NotNull Jankson jankson) throws IOException, SyntaxError {
+            return ConfigFormat.COMPACT_JSON.read(Base64.getDecoder().wrap(in), jankson);
+        }
+
+        @Override
+        public void write(@NotNull JsonObject json, @NotNull OutputStream out) throws IOException {
+            // Closing the encoder writes the padding, but must not close the provided stream
+            final OutputStream encoder = Base64.getEncoder().wrap(new OutputStream() {
+                @Override
+                public void write(final int b) throws IOException {
+                    out.write(b);
+                }
+
+                @Override
+                public void write(final byte @NotNull [] b, final int off, final int len) throws IOException {
+                    out.write(b, off, len);
+                }
+            });
+            ConfigFormat.COMPACT_JSON.write(json, encoder);
+            encoder.close();
+            out.flush();
+        }
+
+        @Override
+        public @NotNull String getFileExtension() {
+            return ".b64";
+        }
+    }
+
+    private static class FormatConfig extends DirectoryConfig {
+        private final transient ConfigFormat format;
+        public String name = "default";
+        public List<String> tags = new ArrayList<>();
+        public Map<String, Integer> limits = new TreeMap<>();
+
+        FormatConfig(final Path dir, final String id, final ConfigFormat format) {
+            super(dir, id);
+            this.format = format;
+        }
+
+        @Override
+        public @NotNull ConfigFormat getFormat() {
+            return format;
+        }
+    }
+}
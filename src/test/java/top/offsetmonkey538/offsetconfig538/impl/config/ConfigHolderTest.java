@@ -0,0 +1,79 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigHolderTest {
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 1_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void concurrentUpdatesAreNotLostTest() {
+        final ConfigHolder<CounterConfig> holder = ConfigHolder.create(() -> new CounterConfig(dir), ErrorHandler.SYSTEM_ERR);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+
+                for (int j = 0; j < UPDATES_PER_THREAD; j++) holder.update(config -> new CounterConfig(dir, config.count + 1));
+            }));
+        }
+        start.countDown();
+        futures.forEach(CompletableFuture::join);
+
+        assertEquals(THREADS * UPDATES_PER_THREAD, holder.get().count);
+    }
+
+    @Test
+    public void compareAndSetTest() {
+        final ConfigHolder<CounterConfig> holder = ConfigHolder.create(() -> new CounterConfig(dir), ErrorHandler.SYSTEM_ERR);
+        final CounterConfig original = holder.get();
+
+        assertTrue(holder.compareAndSet(original, new CounterConfig(dir, 1)));
+        // No longer held, even though it's equal
+        assertFalse(holder.compareAndSet(original, new CounterConfig(dir, 2)));
+        assertEquals(1, holder.get().count);
+    }
+
+    @Test
+    public void nullResetsToDefaultsTest() {
+        final ConfigHolder<CounterConfig> holder = ConfigHolder.create(() -> new CounterConfig(dir), ErrorHandler.SYSTEM_ERR);
+
+        holder.set(new CounterConfig(dir, 5));
+        holder.set(null);
+        assertEquals(0, holder.get().count);
+
+        assertEquals(0, holder.update(config -> null).count);
+    }
+
+    private static class CounterConfig extends DirectoryConfig {
+        public int count = 0;
+
+        CounterConfig(final Path dir) {
+            super(dir, "counter");
+        }
+
+        CounterConfig(final Path dir, final int count) {
+            this(dir);
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.Jankson;
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigJournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void replayAppliesRecordsInOrderTest() throws IOException {
+        final Path journalPath = dir.resolve("test.journal");
+        ConfigJournal.append(journalPath, "count", new JsonPrimitive(1), SaveMode.DIRECT);
+        ConfigJournal.append(journalPath, "name", new JsonPrimitive("journaled"), SaveMode.DIRECT);
+        ConfigJournal.append(journalPath, "count", new JsonPrimitive(2), SaveMode.ATOMIC_SYNC);
+
+        final JsonObject json = new JsonObject();
+        json.put("count", new JsonPrimitive(0));
+        json.put("other", new JsonPrimitive(true));
+
+        assertEquals(3, ConfigJournal.replay(journalPath, json, Jankson.builder().build()));
+        assertEquals(2, json.getInt("count", -1));
+        assertEquals(new JsonPrimitive("journaled"), json.get("name"));
+        assertEquals(new JsonPrimitive(true), json.get("other"));
+    }
+
+    @Test
+    public void replayStopsAtTruncatedRecordTest() throws IOException {
+        final Path journalPath = dir.resolve("test.journal");
+        ConfigJournal.append(journalPath, "count", new JsonPrimitive(1), SaveMode.DIRECT);
+        // Crashed in the middle of appending the second record
+        Files.writeString(journalPath, "{\"count\":", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        final JsonObject json = new JsonObject();
+        assertEquals(1, ConfigJournal.replay(journalPath, json, Jankson.builder().build()));
+        assertEquals(1, json.getInt("count", -1));
+    }
+
+    @Test
+    public void replayWithoutJournalTest() throws IOException {
+        final JsonObject json = new JsonObject();
+        assertEquals(0, ConfigJournal.replay(dir.resolve("missing.journal"), json, Jankson.builder().build()));
+        assertTrue(json.isEmpty());
+    }
+
+    @Test
+    public void journaledChangesSurviveRestartTest() {
+        final ConfigHolder<JournaledConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new JournaledConfig(dir), ErrorHandler.SYSTEM_ERR));
+        holder.update(config -> {
+            final JournaledConfig copy = new JournaledConfig(dir);
+            copy.count = 5;
+            return copy;
+        });
+        ConfigManager.journal(holder, "count");
+
+        final Path journalPath = holder.get().getJournalPath();
+        assertNotNull(journalPath);
+        assertTrue(Files.exists(journalPath));
+
+        // Loaded as if the game crashed before the journal was compacted
+        final ConfigHolder<JournaledConfig> restarted = ConfigManager.init(ConfigHolder.create(() -> new JournaledConfig(dir), ErrorHandler.SYSTEM_ERR));
+        assertEquals(5, restarted.get().count);
+        // Folded into the config file
+        assertFalse(Files.exists(journalPath));
+    }
+
+    @Test
+    public void journalRejectsConfigsWithoutCodecTest() {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<FinalFieldConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new FinalFieldConfig(dir), errorHandler));
+
+        ConfigManager.journal(holder, "count");
+        // Saved instead
+        ConfigManager.saveAsync(holder).join();
+
+        assertEquals(1, errorHandler.getErrors().size());
+        assertFalse(Files.exists(dir.resolve("final.journal")));
+    }
+
+    private static class JournaledConfig extends DirectoryConfig {
+        public int count = 0;
+
+        JournaledConfig(final Path dir) {
+            super(dir, "journaled");
+        }
+
+        @Override
+        public @NotNull Path getJournalPath() {
+            return getDir().resolve("journaled.journal");
+        }
+
+        @Override
+        public @NotNull Duration getJournalCompactionDelay() {
+            // Never compacted during the test
+            return Duration.ofHours(1);
+        }
+    }
+
+    private static class FinalFieldConfig extends DirectoryConfig {
+        public final int count = 0;
+
+        FinalFieldConfig(final Path dir) {
+            super(dir, "final");
+        }
+
+        @Override
+        public @NotNull Path getJournalPath() {
+            return getDir().resolve("final.journal");
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigMetricsTest {
+    private static final String OLD_FILE_CONTENTS = "{ \"value\": 1 }";
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    public void resetMetrics() {
+        ConfigManager.setMetrics(ConfigMetrics.NONE);
+    }
+
+    @Test
+    public void loadAndSaveAreMeasuredTest() throws IOException {
+        final ConfigHolder<MeasuredConfig> holder = ConfigHolder.create(() -> new MeasuredConfig(dir), ErrorHandler.SYSTEM_ERR);
+        final Path filePath = holder.get().getFilePath();
+        Files.writeString(filePath, OLD_FILE_CONTENTS);
+
+        final RecordingMetrics metrics = new RecordingMetrics(holder);
+        ConfigManager.setMetrics(metrics);
+        // Datafixing rewrites the file
+        ConfigManager.load(holder);
+
+        assertEquals(Set.of(ConfigMetrics.Phase.values()), Set.copyOf(metrics.phases));
+        assertEquals(List.of("0 -> 1", "1 -> 2"), metrics.datafixers);
+        assertEquals(OLD_FILE_CONTENTS.length(), metrics.bytesRead.get());
+        assertEquals(Files.size(filePath), metrics.bytesWritten.get());
+        assertTrue(metrics.failures.isEmpty());
+        assertEquals(3, holder.get().value);
+    }
+
+    @Test
+    public void failuresAreReportedTest() throws IOException {
+        final ConfigHolder<MeasuredConfig> holder = ConfigHolder.create(() -> new MeasuredConfig(dir), (error, throwable) -> {});
+        Files.writeString(holder.get().getFilePath(), "{ \"value\": ");
+
+        final RecordingMetrics metrics = new RecordingMetrics(holder);
+        final RecordingMetrics otherMetrics = new RecordingMetrics(holder);
+        ConfigManager.setMetrics(metrics.andThen(otherMetrics));
+        ConfigManager.load(holder);
+
+        assertEquals(List.of(ConfigMetrics.Phase.PARSE), metrics.failures);
+        assertEquals(List.of(ConfigMetrics.Phase.PARSE), otherMetrics.failures);
+    }
+
+    private static class RecordingMetrics implements ConfigMetrics {
+        private final ConfigHolder<?> holder;
+        private final List<Phase> phases = new CopyOnWriteArrayList<>();
+        private final List<Phase> failures = new CopyOnWriteArrayList<>();
+        private final List<String> datafixers = new CopyOnWriteArrayList<>();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong bytesWritten = new AtomicLong();
+
+        private RecordingMetrics(final @NotNull ConfigHolder<?> holder) {
+            this.holder = holder;
+        }
+
+        @Override
+        public void onPhase(final @NotNull ConfigHolder<?> configHolder, final @NotNull Phase phase, final long durationNanos) {
+            assertTrue(durationNanos >= 0);
+            if (configHolder == holder) phases.add(phase);
+        }
+
+        @Override
+        public void onBytesRead(final @NotNull ConfigHolder<?> configHolder, final long bytes) {
+            if (configHolder == holder) bytesRead.addAndGet(bytes);
+        }
+
+        @Override
+        public void onBytesWritten(final @NotNull ConfigHolder<?> configHolder, final long bytes) {
+            if (configHolder == holder) bytesWritten.addAndGet(bytes);
+        }
+
+        @Override
+        public void onDatafixerApplied(final @NotNull ConfigHolder<?> configHolder, final int fromVersion, final int toVersion) {
+            if (configHolder == holder) datafixers.add(fromVersion + " -> " + toVersion);
+        }
+
+        @Override
+        public void onFailure(final @NotNull ConfigHolder<?> configHolder, final @NotNull Phase phase, final @Nullable Throwable throwable) {
+            if (configHolder == holder) failures.add(phase);
+        }
+    }
+
+    private static class MeasuredConfig extends DirectoryConfig {
+        public int value = 0;
+
+        MeasuredConfig(final Path dir) {
+            super(dir, "measured");
+        }
+
+        @Override
+        public @NotNull Datafixer[] getDatafixers() {
+            return new Datafixer[] {
+                    (json, jankson) -> json.put("value", new JsonPrimitive(json.getInt("value", 0) + 1)),
+                    (json, jankson) -> json.put("value", new JsonPrimitive(json.getInt("value", 0) + 1))
+            };
+        }
+
+        @Override
+        public int getConfigVersion() {
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigMigratorTest {
+    private static final String OLD_CONTENTS = "{ \"old\": 5, \"unknown\": \"kept\", \"!!!version\": 0 }";
+    private static final String OTHER_CONTENTS = "{ \"old\": 5, \"!!!version\": 0 }";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void migrateTest() throws IOException {
+        final Path mainFile = write("mymod/main.json", OLD_CONTENTS);
+        final Path nestedFile = write("server/config/mymod/main.json", OLD_CONTENTS);
+        final Path upToDateFile = write("uptodate/mymod/main.json", "{ \"value\": 1, \"!!!version\": 1 }");
+        final Path newerFile = write("newer/mymod/main.json", "{ \"value\": 1, \"!!!version\": 2 }");
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        final MigrationReport report = ConfigMigrator.migrate(dir, List.of(() -> new MainConfig(dir, "mymod/main")), false, 2, errorHandler);
+
+        assertEquals(Set.of(mainFile, nestedFile), report.upgraded().keySet());
+        assertEquals(Set.of("value"), report.upgraded().get(mainFile).addedKeys());
+        assertEquals(Set.of("old"), report.upgraded().get(mainFile).removedKeys());
+        assertEquals(Set.of(upToDateFile), report.skipped());
+        assertEquals(Set.of(newerFile), report.failures().keySet());
+        assertFalse(report.isSuccessful());
+        assertEquals(4, report.fileCount());
+        assertTrue(errorHandler.logged("Failed to migrate"), errorHandler.getErrors().toString());
+
+        for (final Path file : List.of(mainFile, nestedFile)) {
+            final String contents = Files.readString(file);
+            assertTrue(contents.contains("\"value\": 5"), contents);
+            assertTrue(contents.contains("\"unknown\": \"kept\""), contents);
+            assertTrue(contents.contains("\"!!!version\": 1"), contents);
+            assertFalse(contents.contains("\"old\""), contents);
+        }
+        assertEquals("{ \"value\": 1, \"!!!version\": 2 }", Files.readString(newerFile));
+    }
+
+    @Test
+    public void otherModsAreNotTouchedTest() throws IOException {
+        final Path mainFile = write("mymod/main.json", OLD_CONTENTS);
+        final Path otherModFile = write("othermod/main.json", OTHER_CONTENTS);
+        final Path rootFile = write("main.json", OTHER_CONTENTS);
+
+        final MigrationReport report = ConfigMigrator.migrate(dir, List.of(() -> new MainConfig(dir, "mymod/main")), false, ErrorHandler.SYSTEM_ERR);
+
+        assertEquals(Set.of(mainFile), report.upgraded().keySet());
+        assertTrue(report.isSuccessful());
+        assertEquals(1, report.fileCount());
+        assertEquals(OTHER_CONTENTS, Files.readString(otherModFile));
+        assertEquals(OTHER_CONTENTS, Files.readString(rootFile));
+    }
+
+    @Test
+    public void ambiguousFilesAreLeftAloneTest() throws IOException {
+        final Path ambiguousFile = write("mymod/main.json", OLD_CONTENTS);
+        final Path rootFile = write("main.json", OLD_CONTENTS);
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        final MigrationReport report = ConfigMigrator.migrate(dir, List.of(() -> new MainConfig(dir, "mymod/main"), () -> new MainConfig(dir, "main")), false, errorHandler);
+
+        // Only matches the type with the shorter id
+        assertEquals(Set.of(rootFile), report.upgraded().keySet());
+        assertEquals(Set.of(ambiguousFile), report.failures().keySet());
+        assertInstanceOf(IllegalStateException.class, report.failures().get(ambiguousFile));
+        assertTrue(errorHandler.logged("Failed to migrate"), errorHandler.getErrors().toString());
+        assertEquals(OLD_CONTENTS, Files.readString(ambiguousFile));
+    }
+
+    @Test
+    public void dryRunTest() throws IOException {
+        final Path mainFile = write("mymod/main.json", OLD_CONTENTS);
+
+        final MigrationReport report = ConfigMigrator.migrate(dir, List.of(() -> new MainConfig(dir, "mymod/main")), true, ErrorHandler.SYSTEM_ERR);
+
+        final DatafixReport fileReport = report.upgraded().get(mainFile);
+        assertNotNull(fileReport);
+        assertEquals(List.of("0 -> 1"), fileReport.steps());
+        assertEquals(OLD_CONTENTS, Files.readString(mainFile));
+    }
+
+    @Test
+    public void invalidParallelismTest() {
+        assertThrows(IllegalArgumentException.class, () -> ConfigMigrator.migrate(dir, List.of(() -> new MainConfig(dir, "mymod/main")), false, 0, ErrorHandler.SYSTEM_ERR));
+    }
+
+    private @NotNull Path write(final @NotNull String relativePath, final @NotNull String contents) throws IOException {
+        final Path file = dir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents);
+        return file;
+    }
+
+    private static class MainConfig extends DirectoryConfig {
+        public int value = 0;
+
+        MainConfig(final Path dir, final String id) {
+            super(dir, id);
+        }
+
+        @Override
+        public int getConfigVersion() {
+            return 1;
+        }
+
+        @Override
+        public @NotNull Datafixer[] getDatafixers() {
+            return new Datafixer[] {
+                    (json, jankson) -> json.put("value", json.remove("old"))
+            };
+        }
+
+        @Override
+        public @NotNull BackupPolicy getBackupPolicy() {
+            return BackupPolicy.SKIP;
+        }
+    }
+}
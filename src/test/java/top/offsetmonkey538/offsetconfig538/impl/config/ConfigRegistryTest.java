@@ -0,0 +1,79 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigRegistryTest {
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    public void unregisterAll() {
+        for (final ConfigHolder<?> holder : Set.copyOf(ConfigRegistry.getAll())) ConfigRegistry.unregister(holder);
+    }
+
+    @Test
+    public void registerTest() {
+        final ConfigHolder<RegisteredConfig> holder = ConfigRegistry.register(ConfigHolder.create(() -> new RegisteredConfig(dir), ErrorHandler.SYSTEM_ERR));
+
+        assertSame(holder, ConfigRegistry.get("registered"));
+        assertSame(holder, ConfigRegistry.get("registered", RegisteredConfig.class));
+        assertNull(ConfigRegistry.get("registered", OtherConfig.class));
+        assertThrows(IllegalArgumentException.class, () -> ConfigRegistry.register(ConfigHolder.create(() -> new RegisteredConfig(dir), ErrorHandler.SYSTEM_ERR)));
+
+        assertTrue(ConfigRegistry.unregister(holder));
+        assertNull(ConfigRegistry.get("registered"));
+        assertFalse(ConfigRegistry.unregister(holder));
+    }
+
+    @Test
+    public void saveAllDirtyTest() {
+        final ConfigHolder<RegisteredConfig> holder = ConfigRegistry.register(ConfigManager.init(ConfigHolder.create(() -> new RegisteredConfig(dir), ErrorHandler.SYSTEM_ERR)));
+        assertTrue(ConfigRegistry.saveAllDirty().isEmpty());
+
+        holder.set(new RegisteredConfig(dir));
+        assertEquals(Set.of(holder), ConfigRegistry.saveAllDirty());
+        assertTrue(ConfigRegistry.saveAllDirty().isEmpty());
+    }
+
+    @Test
+    public void failedSaveIsNotReportedTest() throws IOException {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<RegisteredConfig> holder = ConfigRegistry.register(ConfigManager.init(ConfigHolder.create(() -> new RegisteredConfig(dir), errorHandler)));
+
+        // Can't be written while a directory is in the way
+        final Path filePath = holder.get().getFilePath();
+        Files.delete(filePath);
+        Files.createDirectory(filePath);
+
+        holder.set(new RegisteredConfig(dir));
+        assertTrue(ConfigRegistry.saveAllDirty().isEmpty());
+        assertFalse(errorHandler.getErrors().isEmpty());
+
+        Files.delete(filePath);
+        assertEquals(Set.of(holder), ConfigRegistry.saveAllDirty());
+    }
+
+    private static class RegisteredConfig extends DirectoryConfig {
+        public int value = 1;
+
+        RegisteredConfig(final Path dir) {
+            super(dir, "registered");
+        }
+    }
+
+    private static class OtherConfig extends DirectoryConfig {
+        OtherConfig(final Path dir) {
+            super(dir, "other");
+        }
+    }
+}
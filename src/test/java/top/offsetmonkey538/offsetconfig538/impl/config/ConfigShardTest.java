@@ -0,0 +1,90 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigShardTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void shardRoundTripTest() throws IOException {
+        final ConfigHolder<ShardedConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new ShardedConfig(dir), ErrorHandler.SYSTEM_ERR));
+        final Path sectionPath = holder.get().section.getFilePath();
+        assertTrue(Files.exists(holder.get().getFilePath()));
+        assertTrue(Files.exists(sectionPath));
+        // Shards are only stored in their own file
+        assertFalse(Files.readString(holder.get().getFilePath()).contains("\"value\""));
+
+        holder.update(config -> {
+            final ShardedConfig copy = new ShardedConfig(dir);
+            copy.name = config.name;
+            copy.section.value = 7;
+            return copy;
+        });
+        ConfigManager.save(holder);
+        assertTrue(Files.readString(sectionPath).contains("7"));
+
+        final ConfigHolder<ShardedConfig> reloaded = ConfigManager.init(ConfigHolder.create(() -> new ShardedConfig(dir), ErrorHandler.SYSTEM_ERR));
+        assertEquals(7, reloaded.get().section.value);
+        assertEquals("main", reloaded.get().name);
+    }
+
+    @Test
+    public void failingShardIsLoggedTest() {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<FailingShardConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new FailingShardConfig(dir), errorHandler));
+
+        assertNotNull(holder.get().section);
+        assertTrue(errorHandler.logged("could not be loaded"), errorHandler.getErrors().toString());
+    }
+
+    private static class ShardedConfig extends DirectoryConfig {
+        public String name = "main";
+        @ConfigShard
+        public SectionConfig section;
+
+        ShardedConfig(final Path dir) {
+            super(dir, "sharded");
+            this.section = new SectionConfig(dir);
+        }
+    }
+
+    private static class SectionConfig extends DirectoryConfig {
+        public int value = 1;
+
+        SectionConfig(final Path dir) {
+            super(dir, "section");
+        }
+    }
+
+    private static class FailingShardConfig extends DirectoryConfig {
+        @ConfigShard
+        public FailingSectionConfig section;
+
+        FailingShardConfig(final Path dir) {
+            super(dir, "failing");
+            this.section = new FailingSectionConfig(dir);
+        }
+    }
+
+    private static class FailingSectionConfig extends DirectoryConfig {
+        public int value = 1;
+
+        FailingSectionConfig(final Path dir) {
+            super(dir, "failing_section");
+        }
+
+        @Override
+        public void beforeLoadStart() {
+            throw new IllegalStateException("Broken shard");
+        }
+    }
+}
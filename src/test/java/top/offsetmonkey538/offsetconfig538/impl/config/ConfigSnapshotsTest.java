@@ -0,0 +1,152 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigSnapshotsTest {
+    private static final byte[] CONTENT_HASH = ContentHashes.hash("config file".getBytes(StandardCharsets.UTF_8));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void hitTest() throws IOException {
+        final Path snapshotPath = dir.resolve("test.snapshot");
+        final JsonObject json = createJson();
+        ConfigSnapshots.write(snapshotPath, new ConfigSnapshots.Key(CONTENT_HASH, 1), json);
+
+        assertEquals(json, ConfigSnapshots.read(snapshotPath, new ConfigSnapshots.Key(CONTENT_HASH.clone(), 1)));
+    }
+
+    @Test
+    public void missTest() throws IOException {
+        final Path snapshotPath = dir.resolve("test.snapshot");
+        assertNull(ConfigSnapshots.read(snapshotPath, new ConfigSnapshots.Key(CONTENT_HASH, 1)));
+
+        ConfigSnapshots.write(snapshotPath, new ConfigSnapshots.Key(CONTENT_HASH, 1), createJson());
+        assertNull(ConfigSnapshots.read(snapshotPath, new ConfigSnapshots.Key(CONTENT_HASH, 2)));
+
+        final byte[] otherHash = CONTENT_HASH.clone();
+        otherHash[0]++;
+        assertNull(ConfigSnapshots.read(snapshotPath, new ConfigSnapshots.Key(otherHash, 1)));
+    }
+
+    @Test
+    public void corruptedSnapshotIsMissTest() throws IOException {
+        final Path snapshotPath = dir.resolve("test.snapshot");
+        final ConfigSnapshots.Key key = new ConfigSnapshots.Key(CONTENT_HASH, 1);
+        ConfigSnapshots.write(snapshotPath, key, createJson());
+        final byte[] contents = Files.readAllBytes(snapshotPath);
+
+        // Truncated
+        Files.write(snapshotPath, Arrays.copyOf(contents, contents.length - 3));
+        assertNull(ConfigSnapshots.read(snapshotPath, key));
+
+        // Garbage
+        Files.write(snapshotPath, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+        assertNull(ConfigSnapshots.read(snapshotPath, key));
+
+        // Lengths that would allocate huge or negative arrays
+        writeHeader(snapshotPath, key, Integer.MAX_VALUE, false);
+        assertNull(ConfigSnapshots.read(snapshotPath, key));
+        writeHeader(snapshotPath, key, -1, false);
+        assertNull(ConfigSnapshots.read(snapshotPath, key));
+        writeHeader(snapshotPath, key, Integer.MAX_VALUE, true);
+        assertNull(ConfigSnapshots.read(snapshotPath, key));
+    }
+
+    @Test
+    public void changedFileIsNoticedTest() throws IOException {
+        final ConfigHolder<SnapshotConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new SnapshotConfig(dir), ErrorHandler.SYSTEM_ERR));
+        final Path filePath = holder.get().getFilePath();
+        // Snapshots are created when the file is read
+        ConfigManager.load(holder);
+        assertTrue(Files.exists(holder.get().getSnapshotPath()));
+
+        // Same size and last modified time, only the contents differ
+        final FileTime lastModified = Files.getLastModifiedTime(filePath);
+        final String contents = Files.readString(filePath);
+        assertTrue(contents.contains("\"value\": 1"), contents);
+        Files.writeString(filePath, contents.replace("\"value\": 1", "\"value\": 2"));
+        Files.setLastModifiedTime(filePath, lastModified);
+
+        ConfigManager.load(holder);
+        assertEquals(2, holder.get().value);
+    }
+
+    @Test
+    public void snapshotIsUsedTest() throws IOException {
+        // Snapshots are created when the file is read
+        ConfigManager.load(ConfigManager.init(ConfigHolder.create(() -> new SnapshotConfig(dir), ErrorHandler.SYSTEM_ERR)));
+        final Path snapshotPath = dir.resolve("snapshot.snapshot");
+        final FileTime oldTime = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(snapshotPath, oldTime);
+
+        final ConfigHolder<SnapshotConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new SnapshotConfig(dir), ErrorHandler.SYSTEM_ERR));
+
+        assertEquals(1, holder.get().value);
+        // Not recreated
+        assertEquals(oldTime, Files.getLastModifiedTime(snapshotPath));
+    }
+
+    private static @NotNull JsonObject createJson() {
+        final JsonObject json = new JsonObject();
+        json.put("name", new JsonPrimitive("snapshot"), "A comment");
+        json.put("count", new JsonPrimitive(538L));
+        return json;
+    }
+
+    /**
+     * Writes the start of a snapshot with the provided hash length, followed by a string with the provided length if {@code stringLength} is set.
+     */
+    private static void writeHeader(final @NotNull Path snapshotPath, final @NotNull ConfigSnapshots.Key key, final int length, final boolean stringLength) throws IOException {
+        final byte[] validSnapshot;
+        final Path validPath = snapshotPath.resolveSibling("valid.snapshot");
+        ConfigSnapshots.write(validPath, key, new JsonObject());
+        validSnapshot = Files.readAllBytes(validPath);
+
+        try (OutputStream fileOut = Files.newOutputStream(snapshotPath); DataOutputStream out = new DataOutputStream(fileOut)) {
+            // Magic, format version and config version
+            out.write(validSnapshot, 0, 12);
+            if (!stringLength) {
+                out.writeInt(length);
+                return;
+            }
+
+            out.writeInt(key.contentHash().length);
+            out.write(key.contentHash());
+            // An object with a single entry, whose key is too long
+            out.writeByte(1);
+            out.writeInt(1);
+            out.writeInt(length);
+        }
+    }
+
+    private static class SnapshotConfig extends DirectoryConfig {
+        public int value = 1;
+
+        SnapshotConfig(final Path dir) {
+            super(dir, "snapshot");
+        }
+
+        @Override
+        public @NotNull Path getSnapshotPath() {
+            return getDir().resolve("snapshot.snapshot");
+        }
+    }
+}
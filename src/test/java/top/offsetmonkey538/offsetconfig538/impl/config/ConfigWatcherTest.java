@@ -0,0 +1,105 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+import top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigWatcherTest {
+    // Some platforms poll for changes every few seconds
+    private static final long TIMEOUT_MILLIS = 30_000;
+    // Several times the debounce delay of the watcher
+    private static final long SETTLE_MILLIS = 1_000;
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    public void shutdownWatcher() {
+        ConfigWatcher.shutdown();
+    }
+
+    @Test
+    public void changesAreDebouncedTest() throws IOException, InterruptedException {
+        final ConfigHolder<WatchedConfig> holder = ConfigWatcher.watch(ConfigManager.init(ConfigHolder.create(() -> new WatchedConfig(dir), ErrorHandler.SYSTEM_ERR)));
+        final AtomicInteger reloads = countReloads(holder);
+
+        // Like an editor writing the file in several steps
+        for (int i = 2; i <= 5; i++) Files.writeString(holder.get().getFilePath(), "{ \"value\": %s, \"!!!version\": 0 }".formatted(i));
+
+        waitFor(() -> holder.get().value == 5);
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(1, reloads.get());
+    }
+
+    @Test
+    public void savesAreIgnoredTest() throws InterruptedException {
+        final ConfigHolder<WatchedConfig> holder = ConfigWatcher.watch(ConfigManager.init(ConfigHolder.create(() -> new WatchedConfig(dir), ErrorHandler.SYSTEM_ERR)));
+        final AtomicInteger reloads = countReloads(holder);
+
+        holder.set(new WatchedConfig(dir, 2));
+        ConfigManager.save(holder);
+
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(0, reloads.get());
+        assertEquals(2, holder.get().value);
+    }
+
+    @Test
+    public void unwatchedFilesAreNotReloadedTest() throws IOException, InterruptedException {
+        final ConfigHolder<WatchedConfig> holder = ConfigWatcher.watch(ConfigManager.init(ConfigHolder.create(() -> new WatchedConfig(dir), ErrorHandler.SYSTEM_ERR)));
+        final ConfigHolder<WatchedConfig> other = ConfigWatcher.watch(ConfigManager.init(ConfigHolder.create(() -> new WatchedConfig(dir, "other"), ErrorHandler.SYSTEM_ERR)));
+        ConfigWatcher.unwatch(holder);
+
+        Files.writeString(holder.get().getFilePath(), "{ \"value\": 2, \"!!!version\": 0 }");
+        // Still watched, so the directory is too
+        Files.writeString(other.get().getFilePath(), "{ \"value\": 2, \"!!!version\": 0 }");
+
+        waitFor(() -> other.get().value == 2);
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(1, holder.get().value);
+    }
+
+    private static @NotNull AtomicInteger countReloads(final @NotNull ConfigHolder<?> holder) {
+        final AtomicInteger reloads = new AtomicInteger();
+        OffsetConfig538Events.CONFIG_RELOADED_EVENT.listen(reloadedHolder -> {
+            if (reloadedHolder == holder) reloads.incrementAndGet();
+        });
+        return reloads;
+    }
+
+    private static void waitFor(final @NotNull BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Config wasn't reloaded in time!");
+            Thread.sleep(10);
+        }
+    }
+
+    private static class WatchedConfig extends DirectoryConfig {
+        public int value = 1;
+
+        WatchedConfig(final Path dir) {
+            this(dir, "watched");
+        }
+
+        WatchedConfig(final Path dir, final String id) {
+            super(dir, id);
+        }
+
+        WatchedConfig(final Path dir, final int value) {
+            this(dir);
+            this.value = value;
+        }
+    }
+}
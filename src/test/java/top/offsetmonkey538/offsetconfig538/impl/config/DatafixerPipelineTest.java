@@ -0,0 +1,176 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatafixerPipelineTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void compositeDatafixerSkipsStepsTest() throws IOException {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<PipelineConfig> holder = ConfigHolder.create(() -> new PipelineConfig(dir), errorHandler);
+        final Path filePath = holder.get().getFilePath();
+        Files.writeString(filePath, "{ \"path\": \"\", \"!!!version\": 0 }");
+
+        final DatafixReport report = ConfigManager.dryRunDatafixers(holder);
+        assertNotNull(report);
+        assertEquals(List.of("0 -> 2", "2 -> 3"), report.steps());
+
+        ConfigManager.init(holder);
+        assertEquals("composite3", holder.get().path);
+        assertEquals(List.of(), errorHandler.getErrors());
+        // Backed up before datafixing
+        assertEquals("{ \"path\": \"\", \"!!!version\": 0 }", Files.readString(filePath.resolveSibling("backup-" + filePath.getFileName())));
+    }
+
+    @Test
+    public void regularDatafixersAreUsedOutsideCompositeTest() throws IOException {
+        final ConfigHolder<PipelineConfig> holder = ConfigHolder.create(() -> new PipelineConfig(dir), ErrorHandler.SYSTEM_ERR);
+        Files.writeString(holder.get().getFilePath(), "{ \"path\": \"\", \"!!!version\": 1 }");
+
+        ConfigManager.init(holder);
+        assertEquals("23", holder.get().path);
+    }
+
+    @Test
+    public void dryRunDoesNotModifyFileTest() throws IOException {
+        final ConfigHolder<RenamingConfig> holder = ConfigHolder.create(() -> new RenamingConfig(dir), ErrorHandler.SYSTEM_ERR);
+        final Path filePath = holder.get().getFilePath();
+        final String contents = "{ \"old\": \"a\", \"value\": 1, \"kept\": 2, \"!!!version\": 0 }";
+        Files.writeString(filePath, contents);
+        final FileTime lastModified = Files.getLastModifiedTime(filePath);
+
+        final DatafixReport report = ConfigManager.dryRunDatafixers(holder);
+        assertNotNull(report);
+        assertEquals(0, report.fromVersion());
+        assertEquals(1, report.toVersion());
+        assertFalse(report.isUpToDate());
+        assertEquals(List.of("0 -> 1"), report.steps());
+        assertEquals(Set.of("renamed"), report.addedKeys());
+        assertEquals(Set.of("old"), report.removedKeys());
+        assertEquals(Set.of("value"), report.changedKeys());
+
+        assertEquals(contents, Files.readString(filePath));
+        assertEquals(lastModified, Files.getLastModifiedTime(filePath));
+        assertFalse(Files.exists(filePath.resolveSibling("backup-" + filePath.getFileName())));
+        assertEquals(0, holder.get().value);
+    }
+
+    @Test
+    public void dryRunOfMissingFileTest() {
+        final ConfigHolder<RenamingConfig> holder = ConfigHolder.create(() -> new RenamingConfig(dir), ErrorHandler.SYSTEM_ERR);
+
+        assertNull(ConfigManager.dryRunDatafixers(holder));
+    }
+
+    @Test
+    public void newerFileIsLeftAloneTest() throws IOException {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<RenamingConfig> holder = ConfigHolder.create(() -> new RenamingConfig(dir), errorHandler);
+        final Path filePath = holder.get().getFilePath();
+        final String contents = "{ \"value\": 7, \"unknown\": true, \"!!!version\": 5 }";
+        Files.writeString(filePath, contents);
+        final FileTime lastModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(filePath, lastModified);
+
+        ConfigManager.init(holder);
+        assertEquals(0, holder.get().value);
+        assertTrue(errorHandler.logged("newer version"), errorHandler.getErrors().toString());
+
+        holder.get().value = 3;
+        ConfigManager.save(holder);
+        assertTrue(errorHandler.logged("won't be overwritten"), errorHandler.getErrors().toString());
+
+        assertEquals(contents, Files.readString(filePath));
+        assertEquals(lastModified, Files.getLastModifiedTime(filePath));
+        assertFalse(Files.exists(filePath.resolveSibling("backup-" + filePath.getFileName())));
+
+        // Saved normally once the file is moved away
+        Files.move(filePath, filePath.resolveSibling("moved.json"));
+        ConfigManager.save(holder);
+        assertTrue(Files.readString(filePath).contains("\"value\": 3"));
+    }
+
+    private static class PipelineConfig extends DirectoryConfig {
+        public String path = "default";
+
+        PipelineConfig(final Path dir) {
+            super(dir, "pipeline");
+        }
+
+        @Override
+        public int getConfigVersion() {
+            return 3;
+        }
+
+        @Override
+        public @NotNull Datafixer[] getDatafixers() {
+            return new Datafixer[] {
+                    (json, jankson) -> append(json, "1"),
+                    (json, jankson) -> append(json, "2"),
+                    (json, jankson) -> append(json, "3")
+            };
+        }
+
+        @Override
+        public @NotNull CompositeDatafixer[] getCompositeDatafixers() {
+            return new CompositeDatafixer[] {
+                    new CompositeDatafixer(0, 2, (json, jankson) -> json.put("path", new JsonPrimitive("composite")))
+            };
+        }
+
+        @Override
+        public @NotNull BackupPolicy getBackupPolicy() {
+            return BackupPolicy.KEEP_LATEST;
+        }
+
+        private static void append(final @NotNull JsonObject json, final @NotNull String step) {
+            json.put("path", new JsonPrimitive(((JsonPrimitive) json.get("path")).asString() + step));
+        }
+    }
+
+    private static class RenamingConfig extends DirectoryConfig {
+        public String renamed = "default";
+        public int value = 0;
+        public int kept = 0;
+
+        RenamingConfig(final Path dir) {
+            super(dir, "renaming");
+        }
+
+        @Override
+        public int getConfigVersion() {
+            return 1;
+        }
+
+        @Override
+        public @NotNull Datafixer[] getDatafixers() {
+            return new Datafixer[] {
+                    (json, jankson) -> {
+                        json.put("renamed", json.remove("old"));
+                        json.put("value", new JsonPrimitive(5L));
+                    }
+            };
+        }
+
+        @Override
+        public @NotNull BackupPolicy getBackupPolicy() {
+            return BackupPolicy.KEEP_LATEST;
+        }
+    }
+}
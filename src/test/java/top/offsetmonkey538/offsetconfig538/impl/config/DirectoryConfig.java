@@ -0,0 +1,39 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.NotNull;
+import top.offsetmonkey538.offsetconfig538.api.config.Config;
+
+import java.nio.file.Path;
+
+/**
+ * Base of the configs used in tests, stored in the temporary directory of the test.
+ * <p>
+ *     The directory and id are transient, so they're never serialized and copies keep pointing at the same file.
+ * </p>
+ */
+public abstract class DirectoryConfig implements Config {
+    private final transient Path dir;
+    private final transient String id;
+
+    protected DirectoryConfig(final @NotNull Path dir, final @NotNull String id) {
+        this.dir = dir;
+        this.id = id;
+    }
+
+    /**
+     * @return the directory this config is stored in, for creating copies of it.
+     */
+    public @NotNull Path getDir() {
+        return dir;
+    }
+
+    @Override
+    public @NotNull Path getConfigDirPath() {
+        return dir;
+    }
+
+    @Override
+    public @NotNull String getId() {
+        return id;
+    }
+}
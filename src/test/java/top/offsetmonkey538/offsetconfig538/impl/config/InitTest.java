@@ -0,0 +1,61 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InitTest {
+    private static final FileTime OLD_TIME = FileTime.fromMillis(0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void newFileIsWrittenTest() {
+        final InitResult<InitConfig> result = ConfigManager.initWithResult(ConfigHolder.create(() -> new InitConfig(dir), ErrorHandler.SYSTEM_ERR));
+
+        assertTrue(result.written());
+        assertTrue(Files.exists(result.configHolder().get().getFilePath()));
+    }
+
+    @Test
+    public void upToDateFileIsNotRewrittenTest() throws IOException {
+        final Path filePath = ConfigManager.init(ConfigHolder.create(() -> new InitConfig(dir), ErrorHandler.SYSTEM_ERR)).get().getFilePath();
+        final String contents = Files.readString(filePath);
+        Files.setLastModifiedTime(filePath, OLD_TIME);
+
+        final InitResult<InitConfig> result = ConfigManager.initWithResult(ConfigHolder.create(() -> new InitConfig(dir), ErrorHandler.SYSTEM_ERR));
+
+        assertFalse(result.written());
+        assertEquals(OLD_TIME, Files.getLastModifiedTime(filePath));
+        assertEquals(contents, Files.readString(filePath));
+    }
+
+    @Test
+    public void missingEntriesAreWrittenTest() throws IOException {
+        final Path filePath = new InitConfig(dir).getFilePath();
+        Files.writeString(filePath, "{ \"name\": \"custom\", \"!!!version\": 0 }");
+
+        final InitResult<InitConfig> result = ConfigManager.initWithResult(ConfigHolder.create(() -> new InitConfig(dir), ErrorHandler.SYSTEM_ERR));
+
+        assertTrue(result.written());
+        assertEquals("custom", result.configHolder().get().name);
+        assertTrue(Files.readString(filePath).contains("\"count\""));
+    }
+
+    private static class InitConfig extends DirectoryConfig {
+        public String name = "default";
+        public int count = 1;
+
+        InitConfig(final Path dir) {
+            super(dir, "init");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import blue.endless.jankson.Jankson;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+import top.offsetmonkey538.offsetconfig538.api.event.OffsetConfig538Events;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JanksonCacheTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void reusedByLoadsAndSavesTest() {
+        final AtomicInteger builds = new AtomicInteger();
+        final ConfigHolder<CountingConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new CountingConfig(dir, builds), ErrorHandler.SYSTEM_ERR));
+
+        ConfigManager.save(holder);
+        ConfigManager.reload(holder);
+        ConfigManager.save(holder);
+
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void invalidatedCacheIsRebuiltTest() {
+        final AtomicInteger builds = new AtomicInteger();
+        final ConfigHolder<CountingConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new CountingConfig(dir, builds), ErrorHandler.SYSTEM_ERR));
+
+        ConfigManager.invalidateJanksonCache(holder);
+        ConfigManager.save(holder);
+        assertEquals(2, builds.get());
+
+        ConfigManager.invalidateJanksonCaches();
+        ConfigManager.save(holder);
+        assertEquals(3, builds.get());
+    }
+
+    @Test
+    public void newListenerRebuildsCacheTest() {
+        final AtomicInteger builds = new AtomicInteger();
+        final ConfigHolder<CountingConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new CountingConfig(dir, builds), ErrorHandler.SYSTEM_ERR));
+
+        final AtomicInteger listenerCalls = new AtomicInteger();
+        OffsetConfig538Events.JANKSON_CONFIGURATION_EVENT.listen(builder -> listenerCalls.incrementAndGet());
+        ConfigManager.save(holder);
+
+        assertEquals(2, builds.get());
+        assertEquals(1, listenerCalls.get());
+    }
+
+    private static class CountingConfig extends DirectoryConfig {
+        private final transient AtomicInteger builds;
+        public int value = 1;
+
+        CountingConfig(final Path dir, final AtomicInteger builds) {
+            super(dir, "counting");
+            this.builds = builds;
+        }
+
+        @Override
+        public void configureJankson(final @NotNull Jankson.Builder builder) {
+            builds.incrementAndGet();
+        }
+    }
+}
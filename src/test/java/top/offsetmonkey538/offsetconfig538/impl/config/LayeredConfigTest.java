@@ -0,0 +1,142 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayeredConfigTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void precedenceTest() throws IOException {
+        final ConfigHolder<LayeredTestConfig> base = ConfigManager.init(ConfigHolder.create(() -> new LayeredTestConfig(dir), ErrorHandler.SYSTEM_ERR));
+        final Path worldLayer = writeLayer("world.json", "{ \"name\": \"world\", \"count\": 2 }");
+        final Path instanceLayer = writeLayer("instance.json", "{ \"count\": 3 }");
+
+        final LayeredConfig<LayeredTestConfig> layered = LayeredConfig.create(base, List.of(worldLayer, instanceLayer, dir.resolve("missing.json")));
+
+        assertEquals("world", layered.get().name);
+        assertEquals(3, layered.get().count);
+        // Not overridden, so shared with the base config
+        assertSame(base.get().tags, layered.get().tags);
+        // Base isn't modified
+        assertEquals("default", base.get().name);
+        assertEquals(1, base.get().count);
+    }
+
+    @Test
+    public void objectsAreMergedTest() throws IOException {
+        final ConfigHolder<LayeredTestConfig> base = ConfigManager.init(ConfigHolder.create(() -> new LayeredTestConfig(dir), ErrorHandler.SYSTEM_ERR));
+        final Path worldLayer = writeLayer("world.json", "{ \"nested\": { \"first\": 2 } }");
+        final Path instanceLayer = writeLayer("instance.json", "{ \"nested\": { \"second\": 3 } }");
+
+        final LayeredConfig<LayeredTestConfig> layered = LayeredConfig.create(base, List.of(worldLayer, instanceLayer));
+
+        assertEquals(2, layered.get().nested.first);
+        assertEquals(3, layered.get().nested.second);
+        assertEquals(1, layered.get().nested.third);
+    }
+
+    @Test
+    public void invalidValueUsesBaseTest() throws IOException {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<LayeredTestConfig> base = ConfigManager.init(ConfigHolder.create(() -> new LayeredTestConfig(dir), errorHandler));
+        final Path layer = writeLayer("world.json", "{ \"name\": \"world\", \"count\": \"not a number\" }");
+
+        final LayeredConfig<LayeredTestConfig> layered = LayeredConfig.create(base, List.of(layer));
+
+        assertEquals("world", layered.get().name);
+        assertEquals(1, layered.get().count);
+        assertTrue(errorHandler.logged("invalid value for 'count'"), errorHandler.getErrors().toString());
+    }
+
+    @Test
+    public void reloadLayerTest() throws IOException {
+        final ConfigHolder<LayeredTestConfig> base = ConfigManager.init(ConfigHolder.create(() -> new LayeredTestConfig(dir), ErrorHandler.SYSTEM_ERR));
+        final Path worldLayer = writeLayer("world.json", "{ \"name\": \"world\" }");
+        final Path instanceLayer = writeLayer("instance.json", "{ \"count\": 3 }");
+        final LayeredConfig<LayeredTestConfig> layered = LayeredConfig.create(base, List.of(worldLayer, instanceLayer));
+        final LayeredTestConfig before = layered.get();
+
+        // Unchanged
+        assertFalse(layered.reloadLayer(1));
+        assertSame(before, layered.get());
+
+        Files.writeString(instanceLayer, "{ \"count\": 4 }");
+        assertTrue(layered.reloadLayer(1));
+        assertEquals(4, layered.get().count);
+        assertEquals("world", layered.get().name);
+
+        // Removed layers stop overriding
+        Files.delete(worldLayer);
+        assertTrue(layered.reload());
+        assertEquals("default", layered.get().name);
+        assertEquals(4, layered.get().count);
+    }
+
+    @Test
+    public void replacedBaseIsNoticedTest() throws IOException {
+        final ConfigHolder<LayeredTestConfig> base = ConfigManager.init(ConfigHolder.create(() -> new LayeredTestConfig(dir), ErrorHandler.SYSTEM_ERR));
+        final Path layer = writeLayer("world.json", "{ \"count\": 3 }");
+        final LayeredConfig<LayeredTestConfig> layered = LayeredConfig.create(base, List.of(layer));
+
+        base.update(config -> {
+            final LayeredTestConfig copy = new LayeredTestConfig(dir);
+            copy.name = "replaced";
+            copy.count = 10;
+            return copy;
+        });
+
+        assertEquals("replaced", layered.get().name);
+        // Still overridden
+        assertEquals(3, layered.get().count);
+    }
+
+    @Test
+    public void unsupportedConfigTest() {
+        final ConfigHolder<FinalConfig> base = ConfigHolder.create(() -> new FinalConfig(dir), ErrorHandler.SYSTEM_ERR);
+
+        assertThrows(IllegalArgumentException.class, () -> LayeredConfig.create(base, List.of()));
+    }
+
+    private @NotNull Path writeLayer(final @NotNull String fileName, final @NotNull String contents) throws IOException {
+        final Path layer = dir.resolve(fileName);
+        Files.writeString(layer, contents);
+        return layer;
+    }
+
+    private static class LayeredTestConfig extends DirectoryConfig {
+        public String name = "default";
+        public int count = 1;
+        public List<String> tags = new ArrayList<>(List.of("a"));
+        public Nested nested = new Nested();
+
+        LayeredTestConfig(final Path dir) {
+            super(dir, "layered");
+        }
+    }
+
+    public static class Nested {
+        public int first = 1;
+        public int second = 1;
+        public int third = 1;
+    }
+
+    private static class FinalConfig extends DirectoryConfig {
+        public final String name = "final";
+
+        FinalConfig(final Path dir) {
+            super(dir, "final");
+        }
+    }
+}
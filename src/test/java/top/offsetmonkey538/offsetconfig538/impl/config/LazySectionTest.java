@@ -0,0 +1,92 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazySectionTest {
+    private static final String FILE_CONTENTS = "{ \"name\": \"lazy\", \"overrides\": { \"a\": 1, \"b\": 2 }, \"!!!version\": 0 }";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void deserializedOnFirstAccessTest() throws IOException {
+        final ConfigHolder<LazyConfig> holder = load(FILE_CONTENTS);
+        final LazySection<Map<String, Integer>> overrides = holder.get().overrides;
+
+        assertFalse(overrides.isLoaded());
+        assertEquals(Map.of("a", 1, "b", 2), overrides.get());
+        assertTrue(overrides.isLoaded());
+    }
+
+    @Test
+    public void unloadedSectionIsWrittenBackTest() throws IOException {
+        final ConfigHolder<LazyConfig> holder = load(FILE_CONTENTS);
+        holder.update(config -> {
+            final LazyConfig copy = new LazyConfig(dir);
+            copy.name = "changed";
+            copy.overrides = config.overrides;
+            return copy;
+        });
+        ConfigManager.save(holder);
+
+        assertFalse(holder.get().overrides.isLoaded());
+        final ConfigHolder<LazyConfig> reloaded = ConfigManager.init(ConfigHolder.create(() -> new LazyConfig(dir), ErrorHandler.SYSTEM_ERR));
+        assertEquals("changed", reloaded.get().name);
+        assertEquals(Map.of("a", 1, "b", 2), reloaded.get().overrides.get());
+    }
+
+    @Test
+    public void setSectionIsSavedTest() throws IOException {
+        final ConfigHolder<LazyConfig> holder = load(FILE_CONTENTS);
+        holder.get().overrides.set(Map.of("c", 3));
+        ConfigManager.save(holder);
+
+        final ConfigHolder<LazyConfig> reloaded = ConfigManager.init(ConfigHolder.create(() -> new LazyConfig(dir), ErrorHandler.SYSTEM_ERR));
+        assertEquals(Map.of("c", 3), reloaded.get().overrides.get());
+    }
+
+    @Test
+    public void invalidSectionUsesDefaultTest() throws IOException {
+        final ConfigHolder<LazyConfig> holder = load("{ \"name\": \"lazy\", \"overrides\": [\"not\", \"a\", \"map\"], \"!!!version\": 0 }");
+
+        assertEquals(Map.of("default", 0), holder.get().overrides.get());
+    }
+
+    @Test
+    public void concurrentAccessDeserializesOnceTest() throws IOException {
+        final LazySection<Map<String, Integer>> overrides = load(FILE_CONTENTS).get().overrides;
+
+        final List<CompletableFuture<Map<String, Integer>>> futures = IntStream.range(0, 8).mapToObj(i -> CompletableFuture.supplyAsync(overrides::get)).toList();
+        final Map<String, Integer> first = futures.get(0).join();
+        for (final CompletableFuture<Map<String, Integer>> future : futures) assertSame(first, future.join());
+    }
+
+    private ConfigHolder<LazyConfig> load(final String contents) throws IOException {
+        final ConfigHolder<LazyConfig> holder = ConfigHolder.create(() -> new LazyConfig(dir), ErrorHandler.SYSTEM_ERR);
+        Files.writeString(holder.get().getFilePath(), contents);
+        ConfigManager.load(holder);
+        return holder;
+    }
+
+    private static class LazyConfig extends DirectoryConfig {
+        public String name = "default";
+        public LazySection<Map<String, Integer>> overrides = LazySection.of(new HashMap<>(Map.of("default", 0)));
+
+        LazyConfig(final Path dir) {
+            super(dir, "lazy");
+        }
+    }
+}
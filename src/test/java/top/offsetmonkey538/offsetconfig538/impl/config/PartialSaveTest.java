@@ -0,0 +1,87 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartialSaveTest {
+    private static final String FILE_CONTENTS = """
+            {
+            	// Kept by partial saves
+            	"name": "default",
+            	"count": 1,
+            	"!!!version": 0
+            }
+            """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void partialSaveKeepsCommentsAndOrderTest() throws IOException {
+        final ConfigHolder<PartialConfig> holder = ConfigHolder.create(() -> new PartialConfig(dir), ErrorHandler.SYSTEM_ERR);
+        Files.writeString(holder.get().getFilePath(), FILE_CONTENTS);
+        ConfigManager.load(holder);
+
+        setCount(holder, 5);
+        holder.markDirty("count");
+        ConfigManager.savePartial(holder);
+
+        final String contents = Files.readString(holder.get().getFilePath());
+        assertTrue(contents.contains("Kept by partial saves"), contents);
+        assertTrue(contents.indexOf("\"name\"") < contents.indexOf("\"count\""), contents);
+
+        final ConfigHolder<PartialConfig> reloaded = ConfigManager.init(ConfigHolder.create(() -> new PartialConfig(dir), ErrorHandler.SYSTEM_ERR));
+        assertEquals(5, reloaded.get().count);
+        assertEquals("default", reloaded.get().name);
+    }
+
+    @Test
+    public void failedSaveKeepsDirtyKeysTest() throws IOException {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolderImpl<PartialConfig> holder = (ConfigHolderImpl<PartialConfig>) ConfigHolder.create(() -> new PartialConfig(dir), errorHandler);
+        final Path filePath = holder.get().getFilePath();
+        Files.writeString(filePath, FILE_CONTENTS);
+        ConfigManager.load(holder);
+
+        // Can't be written while a directory is in the way
+        Files.delete(filePath);
+        Files.createDirectory(filePath);
+
+        setCount(holder, 5);
+        holder.markDirty("count");
+        ConfigManager.savePartial(holder);
+        assertTrue(holder.dirtyKeys.contains("count"));
+        assertFalse(errorHandler.getErrors().isEmpty());
+
+        Files.delete(filePath);
+        ConfigManager.savePartial(holder);
+        assertTrue(holder.dirtyKeys.isEmpty());
+        assertTrue(Files.readString(filePath).contains("5"));
+    }
+
+    private static void setCount(final @NotNull ConfigHolder<PartialConfig> holder, final int count) {
+        holder.update(config -> {
+            final PartialConfig copy = new PartialConfig(config.getDir());
+            copy.name = config.name;
+            copy.count = count;
+            return copy;
+        });
+    }
+
+    private static class PartialConfig extends DirectoryConfig {
+        public String name = "default";
+        public int count = 1;
+
+        PartialConfig(final Path dir) {
+            super(dir, "partial");
+        }
+    }
+}
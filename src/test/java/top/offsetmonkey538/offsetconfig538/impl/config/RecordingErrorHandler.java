@@ -0,0 +1,35 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.offsetmonkey538.offsetconfig538.api.config.ErrorHandler;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An {@link ErrorHandler} keeping every logged error, so tests can check what was logged.
+ */
+public final class RecordingErrorHandler implements ErrorHandler {
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void accept(final @NotNull String error, final @Nullable Throwable throwable) {
+        errors.add(error);
+    }
+
+    /**
+     * @return every logged error, in order.
+     */
+    public @NotNull List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @param part the text to look for
+     * @return whether any logged error contains the provided text.
+     */
+    public boolean logged(final @NotNull String part) {
+        return errors.stream().anyMatch(error -> error.contains(part));
+    }
+}
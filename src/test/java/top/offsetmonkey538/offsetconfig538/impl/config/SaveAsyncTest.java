@@ -0,0 +1,65 @@
+package top.offsetmonkey538.offsetconfig538.impl.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.offsetmonkey538.offsetconfig538.api.config.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveAsyncTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void savesAreCoalescedTest() throws IOException {
+        final ConfigHolder<AsyncConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new AsyncConfig(dir), ErrorHandler.SYSTEM_ERR));
+
+        holder.set(new AsyncConfig(dir, 2));
+        final CompletableFuture<Void> first = ConfigManager.saveAsync(holder);
+        holder.set(new AsyncConfig(dir, 3));
+        final CompletableFuture<Void> second = ConfigManager.saveAsync(holder);
+
+        assertSame(first, second);
+        second.join();
+        assertTrue(Files.readString(holder.get().getFilePath()).contains("3"));
+    }
+
+    @Test
+    public void failedSaveCompletesExceptionallyTest() throws IOException {
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+        final ConfigHolder<AsyncConfig> holder = ConfigManager.init(ConfigHolder.create(() -> new AsyncConfig(dir), errorHandler));
+
+        // Can't be written while a directory is in the way
+        final Path filePath = holder.get().getFilePath();
+        Files.delete(filePath);
+        Files.createDirectory(filePath);
+
+        holder.set(new AsyncConfig(dir, 2));
+        final CompletionException exception = assertThrows(CompletionException.class, () -> ConfigManager.saveAsync(holder).join());
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertFalse(errorHandler.getErrors().isEmpty());
+
+        Files.delete(filePath);
+        ConfigManager.saveAsync(holder).join();
+        assertTrue(Files.readString(filePath).contains("2"));
+    }
+
+    private static class AsyncConfig extends DirectoryConfig {
+        public int value = 1;
+
+        AsyncConfig(final Path dir) {
+            super(dir, "async");
+        }
+
+        AsyncConfig(final Path dir, final int value) {
+            this(dir);
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package top.offsetmonkey538.offsetconfig538.impl.event;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import top.offsetmonkey538.offsetconfig538.api.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventTest {
+    private static final int THREADS = 8;
+    private static final int LISTENERS_PER_THREAD = 100;
+
+    @Test
+    public void invokerIsCachedTest() {
+        final AtomicInteger invokerCreations = new AtomicInteger();
+        final Event<Handler> event = createEvent(invokerCreations);
+        assertEquals(1, invokerCreations.get());
+
+        final Handler invoker = event.getInvoker();
+        assertSame(invoker, event.getInvoker());
+        assertEquals(1, invokerCreations.get());
+
+        event.listen(value -> {});
+        assertNotSame(invoker, event.getInvoker());
+        assertEquals(2, invokerCreations.get());
+    }
+
+    @Test
+    public void listenersAreInvokedInOrderTest() {
+        final Event<Handler> event = createEvent(new AtomicInteger());
+        final List<String> calls = new ArrayList<>();
+        event.listen(value -> calls.add("first " + value));
+        event.listen(value -> calls.add("second " + value));
+
+        event.getInvoker().handle(1);
+
+        assertEquals(List.of("first 1", "second 1"), calls);
+    }
+
+    @Test
+    public void concurrentListenAndInvokeTest() {
+        final Event<Handler> event = createEvent(new AtomicInteger());
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicBoolean registering = new AtomicBoolean(true);
+
+        // Own threads, so the invoking thread can't starve the registering ones in a small common pool
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            // Invokes the event the whole time listeners are registered
+            final CompletableFuture<Void> invoking = CompletableFuture.runAsync(() -> {
+                while (registering.get()) event.getInvoker().handle(0);
+            }, executor);
+
+            final List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int j = 0; j < LISTENERS_PER_THREAD; j++) event.listen(value -> calls.incrementAndGet());
+                }, executor));
+            }
+            futures.forEach(CompletableFuture::join);
+            registering.set(false);
+            invoking.join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        calls.set(0);
+        event.getInvoker().handle(0);
+        assertEquals(THREADS * LISTENERS_PER_THREAD, calls.get());
+        assertEquals(THREADS * LISTENERS_PER_THREAD, ((EventImpl<Handler>) event).getListenerCount());
+    }
+
+    private static @NotNull Event<Handler> createEvent(final @NotNull AtomicInteger invokerCreations) {
+        return Event.createEvent(Handler.class, handlers -> {
+            invokerCreations.incrementAndGet();
+            return value -> {
+                for (final Handler handler : handlers) handler.handle(value);
+            };
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(int value);
+    }
+}